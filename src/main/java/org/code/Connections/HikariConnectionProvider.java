@@ -0,0 +1,146 @@
+package org.code.Connections;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hibernate connection provider backed by a HikariCP pool, selected with
+ * hibernate.connection.provider_class. Settings prefixed with hibernate.hikari. are passed to
+ * Hikari as they are. Connections are validated with Connection.isValid (bounded by
+ * validationTimeout) only after sitting idle, instead of running a query on every checkout.
+ * Checkout latency is recorded for {@link #metrics()}.
+ */
+public class HikariConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+    public static final String SETTINGS_PREFIX = "hibernate.hikari.";
+
+    private final LatencyHistogram checkoutLatency = new LatencyHistogram();
+    private final LongAdder checkoutTimeouts = new LongAdder();
+    private HikariDataSource dataSource;
+
+    @Override
+    public void configure(Map settings) {
+        HikariConfig config = configFrom(settings);
+        config.setMetricsTrackerFactory((poolName, poolStats) -> new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                checkoutLatency.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                checkoutTimeouts.increment();
+            }
+        });
+        dataSource = new HikariDataSource(config);
+    }
+
+    /**
+     * Builds the pool configuration from Hibernate settings. The JDBC url, credentials, driver and
+     * autocommit come from the standard hibernate.connection.* settings unless Hikari ones are
+     * given. Without hibernate.hikari.maximumPoolSize the size is hibernate.connection.pool_size,
+     * or twice the processor count plus one.
+     */
+    public static HikariConfig configFrom(Map<?, ?> settings) {
+        Properties hikariProperties = new Properties();
+        settings.forEach((key, value) -> {
+            String name = String.valueOf(key);
+            if (name.startsWith(SETTINGS_PREFIX) && value != null) {
+                hikariProperties.setProperty(name.substring(SETTINGS_PREFIX.length()), String.valueOf(value));
+            }
+        });
+        HikariConfig config = new HikariConfig(hikariProperties);
+
+        if (config.getJdbcUrl() == null && config.getDataSourceClassName() == null) {
+            config.setJdbcUrl(setting(settings, AvailableSettings.URL));
+        }
+        if (config.getUsername() == null) {
+            config.setUsername(setting(settings, AvailableSettings.USER));
+        }
+        if (config.getPassword() == null) {
+            config.setPassword(setting(settings, AvailableSettings.PASS));
+        }
+        if (config.getDriverClassName() == null && setting(settings, AvailableSettings.DRIVER) != null) {
+            config.setDriverClassName(setting(settings, AvailableSettings.DRIVER));
+        }
+        if (!hikariProperties.containsKey("autoCommit")) {
+            config.setAutoCommit(Boolean.parseBoolean(setting(settings, AvailableSettings.AUTOCOMMIT)));
+        }
+        if (!hikariProperties.containsKey("maximumPoolSize")) {
+            String poolSize = setting(settings, AvailableSettings.POOL_SIZE);
+            config.setMaximumPoolSize(poolSize != null
+                    ? Integer.parseInt(poolSize.trim())
+                    : Runtime.getRuntime().availableProcessors() * 2 + 1);
+        }
+        return config;
+    }
+
+    public PoolMetrics metrics() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                checkoutLatency.count(),
+                checkoutTimeouts.sum(),
+                checkoutLatency.totalNanos(),
+                checkoutLatency.bucketCounts());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return unwrapType.isAssignableFrom(getClass()) || unwrapType.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(getClass())) {
+            return (T) this;
+        }
+        if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private static String setting(Map<?, ?> settings, String name) {
+        Object value = settings.get(name);
+        return value == null ? null : String.valueOf(value);
+    }
+}
@@ -0,0 +1,78 @@
+package org.code.Connections;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counts of recorded durations in fixed buckets, safe to record into from many threads. */
+public class LatencyHistogram {
+    // Upper bounds of the buckets; the last bucket takes everything slower
+    private static final long[] BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1)
+    };
+
+    private final LongAdder[] counts = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        counts[bucket].increment();
+        totalNanos.add(nanos);
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /** Count per bucket, in the order of {@link #bucketLabels()}. */
+    public long[] bucketCounts() {
+        long[] snapshot = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    public static String[] bucketLabels() {
+        String[] labels = new String[BOUNDS_NANOS.length + 1];
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            labels[i] = "<= " + format(BOUNDS_NANOS[i]);
+        }
+        labels[BOUNDS_NANOS.length] = "> " + format(BOUNDS_NANOS[BOUNDS_NANOS.length - 1]);
+        return labels;
+    }
+
+    private static String format(long nanos) {
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+        }
+        if (nanos < TimeUnit.SECONDS.toNanos(1)) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos) + "ms";
+        }
+        return TimeUnit.NANOSECONDS.toSeconds(nanos) + "s";
+    }
+}
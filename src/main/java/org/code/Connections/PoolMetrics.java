@@ -0,0 +1,78 @@
+package org.code.Connections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Point-in-time view of a connection pool. */
+public class PoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int threadsWaiting;
+    private final long checkouts;
+    private final long checkoutTimeouts;
+    private final long totalWaitNanos;
+    private final long[] checkoutLatencyBuckets;
+
+    public PoolMetrics(int active, int idle, int total, int threadsWaiting, long checkouts, long checkoutTimeouts,
+                       long totalWaitNanos, long[] checkoutLatencyBuckets) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.threadsWaiting = threadsWaiting;
+        this.checkouts = checkouts;
+        this.checkoutTimeouts = checkoutTimeouts;
+        this.totalWaitNanos = totalWaitNanos;
+        this.checkoutLatencyBuckets = checkoutLatencyBuckets;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getThreadsWaiting() {
+        return threadsWaiting;
+    }
+
+    public long getCheckouts() {
+        return checkouts;
+    }
+
+    public long getCheckoutTimeouts() {
+        return checkoutTimeouts;
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    public double getMeanWaitMillis() {
+        return checkouts == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / checkouts;
+    }
+
+    /** Checkout counts per latency bucket, labelled by {@link LatencyHistogram#bucketLabels()}. */
+    public long[] getCheckoutLatencyBuckets() {
+        return checkoutLatencyBuckets.clone();
+    }
+
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Connections: %d active, %d idle, %d total, %d threads waiting", active, idle, total, threadsWaiting));
+        lines.add(String.format("Checkouts: %d, timeouts: %d, mean wait %.3f ms", checkouts, checkoutTimeouts, getMeanWaitMillis()));
+        String[] labels = LatencyHistogram.bucketLabels();
+        for (int i = 0; i < labels.length; i++) {
+            if (checkoutLatencyBuckets[i] > 0) {
+                lines.add(String.format("  %-8s %d", labels[i], checkoutLatencyBuckets[i]));
+            }
+        }
+        return lines;
+    }
+}
@@ -3,17 +3,22 @@ package org.code.Controller;
 import org.code.Entities.*;
 import org.code.Exceptions.ValidationException;
 import org.code.Services.PropertyBookingService;
-import org.code.Helpers.HelperFunctions;
+import org.code.Services.PropertySearchService;
+import org.code.Services.SearchCriteria;
+import org.code.Services.SearchResult;
 
-import java.util.List;
-import java.util.Date;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public class PropertyBookingController {
+    private static final int LIST_PAGE_SIZE = 100;
+
     private final PropertyBookingService bookingService;
+    private final PropertySearchService searchService;
 
     public PropertyBookingController(PropertyBookingService bookingService) {
         this.bookingService = bookingService;
+        this.searchService = new PropertySearchService(bookingService);
     }
 
     public List<Review> getReviewsForProperty(Property property) {
@@ -23,6 +28,14 @@ public class PropertyBookingController {
         return bookingService.getReviewsForProperty(property.getId(), true, true);
     }
 
+    public void showCacheStatistics() {
+        bookingService.getCacheStatistics().forEach(System.out::println);
+    }
+
+    public void showPoolStatistics() {
+        bookingService.getPoolStatistics().forEach(System.out::println);
+    }
+
     public void addHost(Host host) {
         if (host == null) {
             throw new ValidationException("Host cannot be null.");
@@ -32,10 +45,13 @@ public class PropertyBookingController {
     }
 
     public void listAllHosts() {
-        List<Host> hosts = bookingService.getAllHosts();
+        int afterId = 0;
+        List<Host> hosts = bookingService.getHostsPage(afterId, LIST_PAGE_SIZE);
         if (hosts.isEmpty()) {
             System.out.println("No hosts found.");
-        } else {
+            return;
+        }
+        while (!hosts.isEmpty()) {
             hosts.forEach(host -> {
                 System.out.println("Host ID: " + host.getId());
                 System.out.println("Name: " + host.getName());
@@ -44,6 +60,8 @@ public class PropertyBookingController {
                 System.out.println("Host Rating: " + host.getHostRating());
                 System.out.println();
             });
+            afterId = hosts.get(hosts.size() - 1).getId();
+            hosts = bookingService.getHostsPage(afterId, LIST_PAGE_SIZE);
         }
     }
 
@@ -69,22 +87,11 @@ public class PropertyBookingController {
         if (host == null) {
             throw new ValidationException("Host cannot be null.");
         }
-        List<Property> properties = bookingService.getPropertiesForHost(host.getId());
-        if (properties.isEmpty()) {
+        List<PropertyListing> listings = bookingService.getPropertyListingsForHost(host.getId());
+        if (listings.isEmpty()) {
             System.out.println("No properties found for this host.");
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printListings(listings);
         }
     }
 
@@ -92,25 +99,14 @@ public class PropertyBookingController {
         if (host == null) {
             throw new ValidationException("Host cannot be null.");
         }
-        List<Property> properties = bookingService.getPropertiesForHost(host.getId());
-        if (properties.isEmpty()) {
+        List<PropertyListing> listings = bookingService.getPropertyListingsForHost(host.getId());
+        if (listings.isEmpty()) {
             System.out.println("No properties found for this host.");
             return;
         }
 
         System.out.println("Properties managed by host " + host.getName() + ":");
-        for (Property property : properties) {
-            System.out.println("Property ID: " + property.getId());
-            System.out.println("Address: " + property.getAddress());
-            System.out.println("Price per Night: " + property.getPricePerNight());
-            System.out.println("Description: " + property.getDescription());
-            System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-            System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                    .map(id -> bookingService.getAmenityById(id).getName())
-                    .collect(Collectors.joining(", ")));
-            System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-            System.out.println();
-        }
+        printListings(listings);
     }
 
     public void listProperty(int id, Host host, String address, double pricePerNight, String description, Location location, List<Integer> amenityIDs, CancellationPolicy cancellationPolicy) {
@@ -165,8 +161,7 @@ public class PropertyBookingController {
         }
 
         Property property = properties.get(propertyIndex);
-        int id = HelperFunctions.randomId();
-        Amenity amenity = new Amenity(id, name, description);
+        Amenity amenity = new Amenity(0, name, description);
         bookingService.addAmenityToProperty(property, amenity);
         System.out.println("Amenity added successfully.");
     }
@@ -180,10 +175,13 @@ public class PropertyBookingController {
     }
 
     public void listAllGuests() {
-        List<Guest> guests = bookingService.getAllGuests();
+        int afterId = 0;
+        List<Guest> guests = bookingService.getGuestsPage(afterId, LIST_PAGE_SIZE);
         if (guests.isEmpty()) {
             System.out.println("No guests found.");
-        } else {
+            return;
+        }
+        while (!guests.isEmpty()) {
             guests.forEach(guest -> {
                 System.out.println("Guest ID: " + guest.getId());
                 System.out.println("Name: " + guest.getName());
@@ -192,6 +190,8 @@ public class PropertyBookingController {
                 System.out.println("Guest Rating: " + guest.getGuestRating());
                 System.out.println();
             });
+            afterId = guests.get(guests.size() - 1).getId();
+            guests = bookingService.getGuestsPage(afterId, LIST_PAGE_SIZE);
         }
     }
 
@@ -259,6 +259,14 @@ public class PropertyBookingController {
         }
     }
 
+    public void cancelBooking(int bookingId) {
+        if (bookingId <= 0) {
+            throw new ValidationException("Booking ID must be positive.");
+        }
+        bookingService.cancelBooking(bookingId);
+        System.out.println("Booking cancelled successfully.");
+    }
+
     public void leaveReview(Guest guest, int propertyId, double rating, String comment) {
         if (guest == null) {
             throw new ValidationException("Guest cannot be null.");
@@ -286,22 +294,11 @@ public class PropertyBookingController {
         if (location == null || location.getCity().isEmpty() || location.getCountry().isEmpty()) {
             throw new ValidationException("Location details are invalid.");
         }
-        List<Property> properties = bookingService.getPropertiesByLocation(location);
-        if (properties.isEmpty()) {
+        List<PropertyListing> listings = bookingService.getPropertyListingsByLocation(location);
+        if (listings.isEmpty()) {
             System.out.println("No properties found for location: " + location);
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printListings(listings);
         }
     }
 
@@ -315,18 +312,7 @@ public class PropertyBookingController {
         if (properties.isEmpty()) {
             System.out.println("No properties available on: " + date);
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printProperties(properties);
         }
     }
 
@@ -362,23 +348,34 @@ public class PropertyBookingController {
      * Lists all properties.
      */
     public void listAllProperties() {
-        List<Property> properties = bookingService.getAllProperties();
+        int afterId = 0;
+        List<PropertyListing> listings = bookingService.getPropertyListingsPage(afterId, LIST_PAGE_SIZE);
 
-        if (properties.isEmpty()) {
+        if (listings.isEmpty()) {
             System.out.println("No properties found.");
+            return;
+        }
+        while (!listings.isEmpty()) {
+            printListings(listings);
+            afterId = listings.get(listings.size() - 1).getId();
+            listings = bookingService.getPropertyListingsPage(afterId, LIST_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Lists the properties that offer all the given amenities.
+     *
+     * @param amenityIds the ids of the required amenities
+     */
+    public void searchPropertiesByAmenities(List<Integer> amenityIds) {
+        if (amenityIds == null || amenityIds.isEmpty()) {
+            throw new ValidationException("Select at least one amenity.");
+        }
+        List<Property> properties = bookingService.findPropertiesWithAmenities(amenityIds);
+        if (properties.isEmpty()) {
+            System.out.println("No properties offer all the selected amenities.");
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printProperties(properties);
         }
     }
 
@@ -409,18 +406,7 @@ public class PropertyBookingController {
         if (properties.isEmpty()) {
             System.out.println("No properties found for location: " + location);
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printProperties(properties);
         }
     }
 
@@ -428,22 +414,11 @@ public class PropertyBookingController {
         if (location == null || location.getCity().isEmpty() || location.getCountry().isEmpty()) {
             throw new ValidationException("Location details are invalid.");
         }
-        List<Property> properties = bookingService.filterPropertiesByLocation(location);
-        if (properties.isEmpty()) {
+        List<PropertyListing> listings = bookingService.getPropertyListingsByLocation(location);
+        if (listings.isEmpty()) {
             System.out.println("No properties found in the specified location: " + location.getCity() + ", " + location.getCountry());
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printListings(listings);
         }
     }
 
@@ -563,6 +538,50 @@ public class PropertyBookingController {
         }
     }
 
+    public void listCheapestAvailableProperties(Date checkInDate, Date checkOutDate, int limit, double minPrice, double maxPrice) {
+        if (checkInDate == null || checkOutDate == null || !checkInDate.before(checkOutDate)) {
+            throw new ValidationException("Check-in date must be before check-out date.");
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Number of results must be positive.");
+        }
+        if (minPrice < 0 || minPrice > maxPrice) {
+            throw new ValidationException("Price range is invalid.");
+        }
+        List<Property> properties = bookingService.getCheapestAvailableProperties(checkInDate, checkOutDate, limit, minPrice, maxPrice);
+        if (properties.isEmpty()) {
+            System.out.println("No properties available for the selected dates and price range.");
+        } else {
+            printProperties(properties);
+        }
+    }
+
+    /** Prints one page of matches and returns the cursor for the next page, or null on the last one. */
+    public Integer searchProperties(SearchCriteria criteria) {
+        if (criteria == null) {
+            throw new ValidationException("Search criteria cannot be null.");
+        }
+        if (criteria.hasStay() && !criteria.getCheckInDate().before(criteria.getCheckOutDate())) {
+            throw new ValidationException("Check-in date must be before check-out date.");
+        }
+        if (criteria.getMinPrice() < 0 || criteria.getMinPrice() > criteria.getMaxPrice()) {
+            throw new ValidationException("Price range is invalid.");
+        }
+        if (criteria.getMinRating() < 0 || criteria.getMinRating() > 5) {
+            throw new ValidationException("Minimum rating must be between 0 and 5.");
+        }
+        if (criteria.getPageSize() <= 0) {
+            throw new ValidationException("Page size must be positive.");
+        }
+        SearchResult result = searchService.search(criteria);
+        if (result.getProperties().isEmpty()) {
+            System.out.println("No properties match the search.");
+        } else {
+            printProperties(result.getProperties());
+        }
+        return result.getNextCursor();
+    }
+
     public void listAvailablePropertiesByDateSortedByPrice(Date date) {
         if (date == null) {
             throw new ValidationException("Date cannot be null.");
@@ -572,18 +591,7 @@ public class PropertyBookingController {
         if (properties.isEmpty()) {
             System.out.println("No properties available on: " + date);
         } else {
-            properties.forEach(property -> {
-                System.out.println("Property ID: " + property.getId());
-                System.out.println("Address: " + property.getAddress());
-                System.out.println("Price per Night: " + property.getPricePerNight());
-                System.out.println("Description: " + property.getDescription());
-                System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
-                System.out.println("Amenities: " + property.getAmenityIDs().stream()
-                        .map(id -> bookingService.getAmenityById(id).getName())
-                        .collect(Collectors.joining(", ")));
-                System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
-                System.out.println();
-            });
+            printProperties(properties);
         }
     }
 
@@ -611,9 +619,7 @@ public class PropertyBookingController {
     }
 
     public List<Payment> getUnpaidPaymentsForHost(int hostId) {
-        return bookingService.getPaymentsForHost(hostId).stream()
-                .filter(payment -> !payment.isProcessed())
-                .collect(Collectors.toList());
+        return bookingService.getUnpaidPaymentsForHost(hostId);
     }
 
     public List<CancellationPolicy> getAllCancellationPolicies() {
@@ -642,4 +648,37 @@ public class PropertyBookingController {
         bookingService.addAmenity(amenity);
         System.out.println("Amenity added successfully.");
     }
-}
\ No newline at end of file
+
+    // Resolves the amenities of all listed properties with a single lookup, then prints each property.
+    private void printProperties(List<Property> properties) {
+        Set<Integer> amenityIds = new HashSet<>();
+        properties.forEach(property -> amenityIds.addAll(property.getAmenityIDs()));
+        Map<Integer, Amenity> amenities = bookingService.getAmenitiesByIds(amenityIds);
+
+        for (Property property : properties) {
+            System.out.println("Property ID: " + property.getId());
+            System.out.println("Address: " + property.getAddress());
+            System.out.println("Price per Night: " + property.getPricePerNight());
+            System.out.println("Description: " + property.getDescription());
+            System.out.println("Location: " + property.getLocation().getCity() + ", " + property.getLocation().getCountry());
+            System.out.println("Amenities: " + property.getAmenityIDs().stream()
+                    .map(amenities::get)
+                    .filter(Objects::nonNull)
+                    .map(Amenity::getName)
+                    .collect(Collectors.joining(", ")));
+            System.out.println("Cancellation Policy: " + property.getCancellationPolicy().getDescription());
+            System.out.println();
+        }
+    }
+
+    private void printListings(List<PropertyListing> listings) {
+        for (PropertyListing listing : listings) {
+            System.out.println("Property ID: " + listing.getId());
+            System.out.println("Address: " + listing.getAddress());
+            System.out.println("Price per Night: " + listing.getPricePerNight());
+            System.out.println("Location: " + listing.getCity() + ", " + listing.getCountry());
+            System.out.println("Cancellation Policy: " + listing.getCancellationPolicy());
+            System.out.println();
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package org.code.Entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "amenities")
 public class Amenity implements HasId {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "amenities_seq")
+    @SequenceGenerator(name = "amenities_seq", sequenceName = "amenities_seq", allocationSize = 50)
     private int amenityID;
 
     @Column(name = "name")
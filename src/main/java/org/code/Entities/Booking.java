@@ -4,10 +4,14 @@ import javax.persistence.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_guest_id", columnList = "guest_id"),
+        @Index(name = "idx_bookings_property_id", columnList = "property_id")
+})
 public class Booking implements HasId, Payable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private int bookingID;
 
     @Column(name = "check_in_date")
@@ -1,12 +1,20 @@
 package org.code.Entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 
 @Entity
-@Table(name = "cancellation_policies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "cancellation_policies", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cancellation_policies_description", columnNames = "description")
+})
 public class CancellationPolicy implements HasId {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cancellation_policies_seq")
+    @SequenceGenerator(name = "cancellation_policies_seq", sequenceName = "cancellation_policies_seq", allocationSize = 50)
     private int policyID;
 
     @Column(name = "description")
@@ -1,13 +1,21 @@
 package org.code.Entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.Objects;
 
 @Entity
-@Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "locations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_locations_city_country", columnNames = {"city", "country"})
+})
 public class Location implements HasId {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locations_seq")
+    @SequenceGenerator(name = "locations_seq", sequenceName = "locations_seq", allocationSize = 50)
     private int locationID;
 
     @Column(name = "city")
@@ -72,6 +80,11 @@ public class Location implements HasId {
         return Objects.equals(city, location.city) && Objects.equals(country, location.country);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(city, country);
+    }
+
     @Override
     public String toString() {
         return "Location{" +
@@ -7,7 +7,8 @@ import java.util.Date;
 @Table(name = "payments")
 public class Payment implements HasId, Payable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private int paymentID;
 
     @Column(name = "amount")
@@ -1,5 +1,9 @@
 package org.code.Entities;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.Date;
@@ -7,10 +11,21 @@ import java.util.List;
 import java.util.Comparator;
 
 @Entity
-@Table(name = "properties")
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Property.WITH_AMENITIES, attributeNodes = @NamedAttributeNode("amenityIDs")),
+        @NamedEntityGraph(name = Property.WITH_REVIEWS, attributeNodes = @NamedAttributeNode("reviews"))
+})
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_host_id", columnList = "host_id"),
+        @Index(name = "idx_properties_location_id", columnList = "location_id")
+})
 public class Property implements HasId, Bookable {
+    public static final String WITH_AMENITIES = "Property.withAmenities";
+    public static final String WITH_REVIEWS = "Property.withReviews";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "properties_seq")
+    @SequenceGenerator(name = "properties_seq", sequenceName = "properties_seq", allocationSize = 50)
     private int propertyID;
 
     @Column(name = "host_id")
@@ -29,7 +44,10 @@ public class Property implements HasId, Bookable {
     @JoinColumn(name = "location_id")
     private Location location;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Loaded on demand, for all properties of the same query at once
+    @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
+    @BatchSize(size = 100)
     @CollectionTable(name = "property_amenities", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "amenity_id")
     private List<Integer> amenityIDs;
@@ -39,6 +57,8 @@ public class Property implements HasId, Bookable {
     private CancellationPolicy cancellationPolicy;
 
     @OneToMany(mappedBy = "propertyID")
+    @Fetch(FetchMode.SUBSELECT)
+    @BatchSize(size = 100)
     private List<Review> reviews;
 
     public Property(int propertyID, String address, double pricePerNight, String description, Location location,
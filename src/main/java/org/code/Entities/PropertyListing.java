@@ -0,0 +1,56 @@
+package org.code.Entities;
+
+/**
+ * Read-only summary of a property for listing screens: the columns they print, without the
+ * amenities, reviews or a managed entity behind it.
+ */
+public class PropertyListing {
+    private final int propertyID;
+    private final String address;
+    private final double pricePerNight;
+    private final String city;
+    private final String country;
+    private final String cancellationPolicy;
+
+    public PropertyListing(int propertyID, String address, double pricePerNight, String city, String country, String cancellationPolicy) {
+        this.propertyID = propertyID;
+        this.address = address;
+        this.pricePerNight = pricePerNight;
+        this.city = city;
+        this.country = country;
+        this.cancellationPolicy = cancellationPolicy;
+    }
+
+    public static PropertyListing of(Property property) {
+        Location location = property.getLocation();
+        CancellationPolicy policy = property.getCancellationPolicy();
+        return new PropertyListing(property.getId(), property.getAddress(), property.getPricePerNight(),
+                location == null ? null : location.getCity(),
+                location == null ? null : location.getCountry(),
+                policy == null ? null : policy.getDescription());
+    }
+
+    public int getId() {
+        return propertyID;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public double getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getCancellationPolicy() {
+        return cancellationPolicy;
+    }
+}
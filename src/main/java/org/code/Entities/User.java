@@ -5,7 +5,9 @@ import javax.persistence.*;
 @MappedSuperclass
 public abstract class User implements HasId {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Shared by hosts and guests, so a user id is unique across both tables
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     protected int userID;
 
     @Column(name = "name")
@@ -0,0 +1,45 @@
+package org.code.Helpers;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Hit/miss counts of Hibernate's second-level and query caches, one line per region. */
+public final class CacheStatistics {
+    private CacheStatistics() {
+    }
+
+    public static List<String> summary(SessionFactory sessionFactory) {
+        List<String> lines = new ArrayList<>();
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            lines.add("Statistics are disabled (hibernate.generate_statistics).");
+            return lines;
+        }
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            if (region.equals(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)
+                    || region.equals(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)) {
+                continue;
+            }
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                lines.add(format(region, regionStatistics.getHitCount(), regionStatistics.getMissCount()));
+            }
+        }
+        lines.add(format("Query cache", statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        return lines;
+    }
+
+    public static double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static String format(String name, long hits, long misses) {
+        return String.format("%s: %d hits, %d misses, %.1f%% hit ratio", name, hits, misses, 100 * hitRatio(hits, misses));
+    }
+}
@@ -0,0 +1,220 @@
+package org.code.Helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent map from non-zero int keys to values, built from lock-striped open-addressing tables.
+ * Keys are stored unboxed. Writers lock only their stripe; reads and value snapshots take no locks
+ * and see every write that completed before they started, like ConcurrentHashMap.
+ */
+public class ConcurrentIntMap<V> {
+    private static final int DEFAULT_STRIPES = 32;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final Object TOMBSTONE = new Object();
+
+    private final Stripe<V>[] stripes;
+    private final int stripeShift;
+
+    public ConcurrentIntMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentIntMap(int stripeCount) {
+        int size = Math.max(1, Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1);
+        stripeShift = Integer.numberOfTrailingZeros(size);
+        stripes = (Stripe<V>[]) new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe<>(stripeShift);
+        }
+    }
+
+    public V get(int key) {
+        int hash = mix(key);
+        return stripes[hash & (stripes.length - 1)].get(key, hash >>> stripeShift);
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public V put(int key, V value) {
+        return stripeFor(key).write(key, value, true);
+    }
+
+    /** Replaces the value only when the key is present; returns the previous value or null. */
+    public V replace(int key, V value) {
+        return stripeFor(key).write(key, value, false);
+    }
+
+    public V remove(int key) {
+        return stripeFor(key).write(key, null, false);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (Stripe<V> stripe : stripes) {
+            stripe.forEach(consumer);
+        }
+    }
+
+    private Stripe<V> stripeFor(int key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved.");
+        }
+        return stripes[mix(key) & (stripes.length - 1)];
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    private static final class Table {
+        // A slot's key never changes once set; deleted entries keep the key and hold TOMBSTONE.
+        final AtomicIntegerArray keys;
+        final AtomicReferenceArray<Object> values;
+
+        Table(int capacity) {
+            keys = new AtomicIntegerArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+        }
+
+        int capacity() {
+            return keys.length();
+        }
+    }
+
+    private static final class Stripe<V> {
+        private final int stripeShift;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Table table = new Table(INITIAL_STRIPE_CAPACITY);
+        private volatile int size;
+        private int usedSlots;
+
+        Stripe(int stripeShift) {
+            this.stripeShift = stripeShift;
+        }
+
+        V get(int key, int hash) {
+            Table current = table;
+            int mask = current.capacity() - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int slotKey = current.keys.get(slot);
+                if (slotKey == 0) {
+                    return null;
+                }
+                if (slotKey == key) {
+                    return live(current.values.get(slot));
+                }
+            }
+        }
+
+        // value == null removes; upsert == false only touches live entries
+        V write(int key, V value, boolean upsert) {
+            int hash = mix(key) >>> stripeShift;
+            lock.lock();
+            try {
+                Table current = table;
+                int mask = current.capacity() - 1;
+                int slot = hash & mask;
+                int slotKey;
+                while ((slotKey = current.keys.get(slot)) != 0 && slotKey != key) {
+                    slot = (slot + 1) & mask;
+                }
+
+                if (slotKey == key) {
+                    V previous = live(current.values.get(slot));
+                    if (previous == null && !upsert) {
+                        return null;
+                    }
+                    current.values.set(slot, value == null ? TOMBSTONE : value);
+                    if (previous == null) {
+                        size++;
+                    } else if (value == null) {
+                        size--;
+                    }
+                    return previous;
+                }
+
+                if (!upsert) {
+                    return null;
+                }
+                // Publish the value before the key so a lock-free reader never sees a key without its value
+                current.values.set(slot, value);
+                current.keys.set(slot, key);
+                size++;
+                if (++usedSlots > current.capacity() * 3 / 4) {
+                    rehash();
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void forEach(EntryConsumer<? super V> consumer) {
+            Table current = table;
+            for (int slot = 0; slot < current.capacity(); slot++) {
+                int key = current.keys.get(slot);
+                if (key != 0) {
+                    V value = live(current.values.get(slot));
+                    if (value != null) {
+                        consumer.accept(key, value);
+                    }
+                }
+            }
+        }
+
+        private void rehash() {
+            Table old = table;
+            int capacity = INITIAL_STRIPE_CAPACITY;
+            while (size > capacity / 2) {
+                capacity <<= 1;
+            }
+            Table resized = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < old.capacity(); i++) {
+                int key = old.keys.get(i);
+                Object value = old.values.get(i);
+                if (key != 0 && live(value) != null) {
+                    int slot = (mix(key) >>> stripeShift) & mask;
+                    while (resized.keys.get(slot) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    resized.values.set(slot, value);
+                    resized.keys.set(slot, key);
+                }
+            }
+            usedSlots = size;
+            table = resized;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V live(Object value) {
+            return value == null || value == TOMBSTONE ? null : (V) value;
+        }
+    }
+}
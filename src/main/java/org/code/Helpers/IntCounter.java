@@ -0,0 +1,108 @@
+package org.code.Helpers;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int to int counter, used to tally int keys without boxing them.
+ */
+public class IntCounter {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] counts;
+    private int size;
+
+    public IntCounter() {
+        this(16);
+    }
+
+    public IntCounter(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedKeys / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    public void increment(int key) {
+        add(key, 1);
+    }
+
+    /** Adds a positive {@code amount} to the key's count. */
+    public void add(int key, int amount) {
+        int slot = slotOf(keys, counts, key);
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            size++;
+        }
+        counts[slot] += amount;
+        if (size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    public int get(int key) {
+        return counts[slotOf(keys, counts, key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Every counted key, in no particular order. */
+    public int[] keys() {
+        return keysWithAtLeast(1);
+    }
+
+    /** Keys whose count reached {@code minCount}, in no particular order. */
+    public int[] keysWithAtLeast(int minCount) {
+        int[] result = new int[size];
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] != 0 && counts[i] >= minCount) {
+                result[found++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /** A new counter with only the keys whose count reached {@code minCount}. */
+    public IntCounter atLeast(int minCount) {
+        int[] kept = keysWithAtLeast(minCount);
+        IntCounter result = new IntCounter(kept.length);
+        for (int key : kept) {
+            result.add(key, get(key));
+        }
+        return result;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldCounts.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slotOf(keys, counts, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int slotOf(int[] keys, int[] counts, int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (counts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
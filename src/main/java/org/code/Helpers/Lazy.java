@@ -0,0 +1,30 @@
+package org.code.Helpers;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe lazily initialized value, computed once on first access.
+ */
+public class Lazy<T> implements Supplier<T> {
+    private final Supplier<T> initializer;
+    private volatile T value;
+
+    public Lazy(Supplier<T> initializer) {
+        this.initializer = initializer;
+    }
+
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = initializer.get();
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package org.code.Helpers;
+
+import org.code.Connections.HikariConnectionProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+
+/** Connection pool metrics of a SessionFactory, when its connection provider records them. */
+public final class PoolStatistics {
+    private PoolStatistics() {
+    }
+
+    public static List<String> summary(SessionFactory sessionFactory) {
+        ConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (provider instanceof HikariConnectionProvider hikari) {
+            return hikari.metrics().summary();
+        }
+        return List.of("Pool metrics are not available for " + provider.getClass().getSimpleName() + ".");
+    }
+}
@@ -0,0 +1,92 @@
+package org.code.Ids;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Id generator where each thread reserves a block of ids per entity type with a single atomic
+ * add and then hands them out locally, so threads never contend per id. The store is written
+ * rarely: it is given a mark several blocks ahead of what has been reserved, and only when a
+ * block crosses that mark is a new one saved. After a restart, generation continues past the
+ * saved mark, so ids are skipped but never reused.
+ */
+public class BlockIdGenerator implements IdGenerator {
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+    private static final int BLOCKS_PER_SAVE = 64;
+
+    private final HighWaterMarkStore store;
+    private final ToIntFunction<Class<?>> existingMaxId;
+    private final int blockSize;
+    private final Map<Class<?>, TypeState> states = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<Class<?>, Block>> blocks = ThreadLocal.withInitial(HashMap::new);
+
+    public BlockIdGenerator(HighWaterMarkStore store) {
+        this(store, type -> 0, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param existingMaxId largest id already stored for a type, consulted once per type so ids
+     *                      written before the generator existed are not handed out again
+     */
+    public BlockIdGenerator(HighWaterMarkStore store, ToIntFunction<Class<?>> existingMaxId, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        this.store = store;
+        this.existingMaxId = existingMaxId;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public int nextId(Class<?> entityType) {
+        Block block = blocks.get().get(entityType);
+        if (block == null || block.next == block.end) {
+            block = reserveBlock(entityType);
+            blocks.get().put(entityType, block);
+        }
+        return block.next++;
+    }
+
+    private Block reserveBlock(Class<?> entityType) {
+        TypeState state = states.computeIfAbsent(entityType, type ->
+                new TypeState(Math.max(store.load(type.getName()), existingMaxId.applyAsInt(type))));
+        int start = state.reserved.getAndAdd(blockSize) + 1;
+        int end = start + blockSize - 1;
+        if (start <= 0 || end < start) {
+            throw new IllegalStateException("Ids exhausted for " + entityType.getSimpleName() + ".");
+        }
+        if (end > state.saved) {
+            synchronized (state) {
+                if (end > state.saved) {
+                    int mark = (int) Math.min(Integer.MAX_VALUE, end + (long) blockSize * BLOCKS_PER_SAVE);
+                    store.save(entityType.getName(), mark);
+                    state.saved = mark;
+                }
+            }
+        }
+        return new Block(start, end + 1);
+    }
+
+    private static final class TypeState {
+        private final AtomicInteger reserved;
+        private volatile int saved;
+
+        private TypeState(int highWater) {
+            this.reserved = new AtomicInteger(highWater);
+            this.saved = highWater;
+        }
+    }
+
+    private static final class Block {
+        private int next;
+        private final int end;
+
+        private Block(int next, int end) {
+            this.next = next;
+            this.end = end;
+        }
+    }
+}
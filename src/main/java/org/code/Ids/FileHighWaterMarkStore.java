@@ -0,0 +1,53 @@
+package org.code.Ids;
+
+import org.code.Exceptions.DatabaseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.Properties;
+
+/**
+ * Keeps the marks in a properties file. The file is replaced atomically on every save, which
+ * happens once per reserved block rather than once per id.
+ */
+public class FileHighWaterMarkStore implements HighWaterMarkStore {
+    private final Path path;
+    private final Properties marks = new Properties();
+
+    public FileHighWaterMarkStore(String filePath) {
+        this.path = Paths.get(filePath);
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                marks.load(in);
+            } catch (IOException e) {
+                throw new DatabaseException("Error reading id marks from " + filePath + ".", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized int load(String key) {
+        return Integer.parseInt(marks.getProperty(key, "0"));
+    }
+
+    @Override
+    public synchronized void save(String key, int highWater) {
+        if (highWater <= load(key)) {
+            return;
+        }
+        marks.setProperty(key, Integer.toString(highWater));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            marks.store(out, "Highest reserved id per entity type");
+        } catch (IOException e) {
+            throw new DatabaseException("Error writing id marks to " + path + ".", e);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DatabaseException("Error writing id marks to " + path + ".", e);
+        }
+    }
+}
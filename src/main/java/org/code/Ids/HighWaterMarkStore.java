@@ -0,0 +1,12 @@
+package org.code.Ids;
+
+/**
+ * Remembers, per key, the highest id already reserved so a restarted generator never reuses one.
+ * save() must keep the larger value when called out of order.
+ */
+public interface HighWaterMarkStore {
+    /** Returns the saved mark, or 0 when nothing was saved yet. */
+    int load(String key);
+
+    void save(String key, int highWater);
+}
@@ -0,0 +1,6 @@
+package org.code.Ids;
+
+/** Hands out ids that are unique per entity type. */
+public interface IdGenerator {
+    int nextId(Class<?> entityType);
+}
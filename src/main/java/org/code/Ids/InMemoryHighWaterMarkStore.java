@@ -0,0 +1,18 @@
+package org.code.Ids;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryHighWaterMarkStore implements HighWaterMarkStore {
+    private final Map<String, Integer> marks = new ConcurrentHashMap<>();
+
+    @Override
+    public int load(String key) {
+        return marks.getOrDefault(key, 0);
+    }
+
+    @Override
+    public void save(String key, int highWater) {
+        marks.merge(key, highWater, Math::max);
+    }
+}
@@ -0,0 +1,99 @@
+package org.code.Indexes;
+
+import org.code.Entities.Property;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One compressed (Roaring) bitmap of property ids per amenity. A search for several amenities
+ * is the intersection of their bitmaps, so it never touches the property rows.
+ */
+public class AmenityIndex {
+    private final Map<Integer, RoaringBitmap> propertiesByAmenity = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(Property property) {
+        lock.writeLock().lock();
+        try {
+            for (int amenityId : property.getAmenityIDs()) {
+                propertiesByAmenity.computeIfAbsent(amenityId, id -> new RoaringBitmap()).add(property.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces whatever the index held for the property with its current amenity list. */
+    public void put(Property property) {
+        lock.writeLock().lock();
+        try {
+            removeProperty(property.getId());
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAmenity(int propertyId, int amenityId) {
+        lock.writeLock().lock();
+        try {
+            propertiesByAmenity.computeIfAbsent(amenityId, id -> new RoaringBitmap()).add(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProperty(int propertyId) {
+        lock.writeLock().lock();
+        try {
+            propertiesByAmenity.values().removeIf(properties -> {
+                properties.remove(propertyId);
+                return properties.isEmpty();
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ids of the properties that have every one of the amenities, in ascending order. */
+    public RoaringBitmap propertiesWithAll(Collection<Integer> amenityIds) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> bitmaps = new ArrayList<>();
+            for (int amenityId : new LinkedHashSet<>(amenityIds)) {
+                RoaringBitmap properties = propertiesByAmenity.get(amenityId);
+                if (properties == null) {
+                    return new RoaringBitmap();
+                }
+                bitmaps.add(properties);
+            }
+            if (bitmaps.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            if (bitmaps.size() == 1) {
+                return bitmaps.get(0).clone();
+            }
+            return FastAggregation.and(bitmaps.iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int propertyCount(int amenityId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap properties = propertiesByAmenity.get(amenityId);
+            return properties == null ? 0 : properties.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.code.Indexes;
+
+import org.code.Entities.Booking;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-property index of booked [checkIn, checkOut) ranges.
+ * Overlapping ranges of a property are merged into disjoint segments ordered by start,
+ * so an availability check is a single floor lookup instead of a scan over all bookings.
+ */
+public class BookingCalendar {
+    private final Map<Integer, PropertyCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> propertyByBooking = new ConcurrentHashMap<>();
+
+    public void add(Booking booking) {
+        if (booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+            return;
+        }
+        calendars.computeIfAbsent(booking.getPropertyID(), id -> new PropertyCalendar())
+                .add(booking.getId(), booking.getCheckInDate().getTime(), booking.getCheckOutDate().getTime());
+        propertyByBooking.put(booking.getId(), booking.getPropertyID());
+    }
+
+    public void remove(int bookingId) {
+        Integer propertyId = propertyByBooking.remove(bookingId);
+        if (propertyId == null) {
+            return;
+        }
+        PropertyCalendar calendar = calendars.get(propertyId);
+        if (calendar != null) {
+            calendar.remove(bookingId);
+        }
+    }
+
+    public void removeProperty(int propertyId) {
+        PropertyCalendar calendar = calendars.remove(propertyId);
+        if (calendar != null) {
+            calendar.bookingIds().forEach(propertyByBooking::remove);
+        }
+    }
+
+    public boolean isAvailable(int propertyId, Date checkInDate, Date checkOutDate) {
+        PropertyCalendar calendar = calendars.get(propertyId);
+        return calendar == null || !calendar.overlaps(checkInDate.getTime(), checkOutDate.getTime());
+    }
+
+    private static class PropertyCalendar {
+        private final Map<Integer, long[]> ranges = new HashMap<>();
+        private final TreeMap<Long, Long> segments = new TreeMap<>();
+
+        synchronized void add(int bookingId, long start, long end) {
+            long[] previous = ranges.put(bookingId, new long[]{start, end});
+            if (previous != null) {
+                rebuild();
+            } else {
+                insertSegment(start, end);
+            }
+        }
+
+        synchronized void remove(int bookingId) {
+            if (ranges.remove(bookingId) != null) {
+                rebuild();
+            }
+        }
+
+        synchronized Set<Integer> bookingIds() {
+            return new HashSet<>(ranges.keySet());
+        }
+
+        // Same rule as the original scan: a booking blocks the stay when
+        // booking.checkIn < checkOut && booking.checkOut > checkIn.
+        synchronized boolean overlaps(long checkIn, long checkOut) {
+            Map.Entry<Long, Long> candidate = segments.lowerEntry(checkOut);
+            return candidate != null && candidate.getValue() > checkIn;
+        }
+
+        private void insertSegment(long start, long end) {
+            long mergedStart = start;
+            long mergedEnd = end;
+
+            Map.Entry<Long, Long> entry = segments.lowerEntry(mergedEnd);
+            while (entry != null && (entry.getValue() > mergedStart || entry.getKey() == mergedStart)) {
+                mergedStart = Math.min(mergedStart, entry.getKey());
+                mergedEnd = Math.max(mergedEnd, entry.getValue());
+                segments.remove(entry.getKey());
+                entry = segments.lowerEntry(mergedEnd);
+            }
+            Long sameStart = segments.get(mergedStart);
+            if (sameStart != null) {
+                mergedEnd = Math.max(mergedEnd, sameStart);
+            }
+            segments.put(mergedStart, mergedEnd);
+        }
+
+        private void rebuild() {
+            segments.clear();
+            ranges.values().forEach(range -> insertSegment(range[0], range[1]));
+        }
+    }
+}
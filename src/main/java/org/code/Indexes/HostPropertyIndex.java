@@ -0,0 +1,41 @@
+package org.code.Indexes;
+
+import org.code.Entities.Property;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps each host to the ids of the properties they own, so host-scoped queries
+ * can go straight to the bookings of those properties.
+ */
+public class HostPropertyIndex {
+    private final Map<Integer, Set<Integer>> propertiesByHost = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> hostByProperty = new ConcurrentHashMap<>();
+
+    public void add(Property property) {
+        put(property);
+    }
+
+    /** Adds the property, or moves it if its host changed. */
+    public synchronized void put(Property property) {
+        remove(property);
+        propertiesByHost.computeIfAbsent(property.getHostID(), id -> ConcurrentHashMap.newKeySet())
+                .add(property.getId());
+        hostByProperty.put(property.getId(), property.getHostID());
+    }
+
+    // Removes the property from the host it was indexed under, which may not be its current host
+    public synchronized void remove(Property property) {
+        Integer hostId = hostByProperty.remove(property.getId());
+        Set<Integer> propertyIds = hostId == null ? null : propertiesByHost.get(hostId);
+        if (propertyIds != null) {
+            propertyIds.remove(property.getId());
+        }
+    }
+
+    public Set<Integer> propertiesOf(int hostId) {
+        return Set.copyOf(propertiesByHost.getOrDefault(hostId, Set.of()));
+    }
+}
@@ -0,0 +1,62 @@
+package org.code.Indexes;
+
+import org.code.Entities.Location;
+import org.code.Entities.Property;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Property ids partitioned by country and then city, so browsing a location only touches the
+ * properties in it. Keys compare the same way as {@link Location#equals}.
+ */
+public class LocationIndex {
+    private final Map<String, Map<String, Set<Integer>>> propertiesByCountry = new ConcurrentHashMap<>();
+    private final Map<Integer, Location> locationById = new ConcurrentHashMap<>();
+
+    /** Adds the property, or moves it if its location changed. */
+    public synchronized void put(Property property) {
+        remove(property.getId());
+        Location location = property.getLocation();
+        if (location == null || location.getCity() == null || location.getCountry() == null) {
+            return;
+        }
+        propertiesByCountry.computeIfAbsent(location.getCountry(), country -> new ConcurrentHashMap<>())
+                .computeIfAbsent(location.getCity(), city -> ConcurrentHashMap.newKeySet())
+                .add(property.getId());
+        locationById.put(property.getId(), location);
+    }
+
+    public synchronized void remove(int propertyId) {
+        Location previous = locationById.remove(propertyId);
+        if (previous == null) {
+            return;
+        }
+        Map<String, Set<Integer>> cities = propertiesByCountry.get(previous.getCountry());
+        Set<Integer> propertyIds = cities.get(previous.getCity());
+        propertyIds.remove(propertyId);
+        if (propertyIds.isEmpty()) {
+            cities.remove(previous.getCity());
+            if (cities.isEmpty()) {
+                propertiesByCountry.remove(previous.getCountry());
+            }
+        }
+    }
+
+    public Set<Integer> propertiesIn(Location location) {
+        return Set.copyOf(idsIn(location));
+    }
+
+    public int countIn(Location location) {
+        return idsIn(location).size();
+    }
+
+    private Set<Integer> idsIn(Location location) {
+        if (location.getCity() == null || location.getCountry() == null) {
+            return Set.of();
+        }
+        Map<String, Set<Integer>> cities = propertiesByCountry.get(location.getCountry());
+        return cities == null ? Set.of() : cities.getOrDefault(location.getCity(), Set.of());
+    }
+}
@@ -0,0 +1,70 @@
+package org.code.Indexes;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reference entities keyed by their normalized natural key, with get-or-create that runs the
+ * create at most once per key. Concurrent callers for the same key wait for that create and get
+ * its result; callers for other keys are not blocked.
+ */
+public class NaturalKeyIndex<T> {
+    private final Function<T, String> keyOf;
+    private final ConcurrentMap<String, CompletableFuture<T>> entries = new ConcurrentHashMap<>();
+
+    public NaturalKeyIndex(Function<T, String> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    /** Joins the parts into a key that ignores case and surrounding whitespace. */
+    public static String normalize(String... parts) {
+        StringBuilder key = new StringBuilder();
+        for (String part : parts) {
+            if (key.length() > 0) {
+                key.append('\u0000');
+            }
+            key.append(part == null ? "" : part.trim().toLowerCase(Locale.ROOT));
+        }
+        return key.toString();
+    }
+
+    public void add(T entity) {
+        entries.putIfAbsent(keyOf.apply(entity), CompletableFuture.completedFuture(entity));
+    }
+
+    public T get(String key) {
+        CompletableFuture<T> entry = entries.get(key);
+        return entry == null ? null : entry.join();
+    }
+
+    /**
+     * Returns the entity already indexed under the candidate's key, or stores the candidate
+     * through {@code create} and indexes whatever it returns.
+     */
+    public T getOrCreate(T candidate, UnaryOperator<T> create) {
+        String key = keyOf.apply(candidate);
+        CompletableFuture<T> pending = new CompletableFuture<>();
+        CompletableFuture<T> existing = entries.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            T created = create.apply(candidate);
+            pending.complete(created);
+            return created;
+        } catch (RuntimeException e) {
+            // Let the next caller retry instead of caching the failure
+            entries.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void remove(T entity) {
+        entries.remove(keyOf.apply(entity));
+    }
+}
@@ -0,0 +1,101 @@
+package org.code.Indexes;
+
+import org.code.Entities.Property;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Property ids ordered by price per night (ties by id) in a concurrent skip list, so the
+ * cheapest properties in a price range can be walked lazily without sorting the catalogue.
+ */
+public class PriceIndex {
+    private final NavigableSet<Entry> byPrice = new ConcurrentSkipListSet<>();
+    private final Map<Integer, Double> priceById = new ConcurrentHashMap<>();
+
+    /** Adds the property, or moves it if its price changed. */
+    public synchronized void put(Property property) {
+        Double previous = priceById.put(property.getId(), property.getPricePerNight());
+        if (previous != null) {
+            byPrice.remove(new Entry(previous, property.getId()));
+        }
+        byPrice.add(new Entry(property.getPricePerNight(), property.getId()));
+    }
+
+    public synchronized void remove(int propertyId) {
+        Double previous = priceById.remove(propertyId);
+        if (previous != null) {
+            byPrice.remove(new Entry(previous, propertyId));
+        }
+    }
+
+    public Double priceOf(int propertyId) {
+        return priceById.get(propertyId);
+    }
+
+    public int size() {
+        return priceById.size();
+    }
+
+    /** Counts the properties priced within the range, giving up at {@code cap}. */
+    public int countInRange(double minPrice, double maxPrice, int cap) {
+        int count = 0;
+        Iterator<Integer> propertyIds = cheapestFirst(minPrice, maxPrice);
+        while (count < cap && propertyIds.hasNext()) {
+            propertyIds.next();
+            count++;
+        }
+        return count;
+    }
+
+    /** Ids of the properties priced within [minPrice, maxPrice], cheapest first. */
+    public Iterator<Integer> cheapestFirst(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            return Collections.emptyIterator();
+        }
+        Iterator<Entry> entries = byPrice.subSet(
+                new Entry(minPrice, Integer.MIN_VALUE), true,
+                new Entry(maxPrice, Integer.MAX_VALUE), true).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return entries.next().propertyId;
+            }
+        };
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final double price;
+        private final int propertyId;
+
+        private Entry(double price, int propertyId) {
+            this.price = price;
+            this.propertyId = propertyId;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byPrice = Double.compare(price, other.price);
+            return byPrice != 0 ? byPrice : Integer.compare(propertyId, other.propertyId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && compareTo((Entry) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(price) + propertyId;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.code.Indexes;
+
+import org.code.Entities.Review;
+
+import java.util.*;
+
+/**
+ * Running review count and rating sum per property, with the properties kept ranked by
+ * average rating. Adding a review is O(log n) and reading the top N costs O(N).
+ */
+public class ReviewAggregateIndex {
+    private static final Comparator<Aggregate> BY_AVERAGE_DESC = Comparator
+            .comparingDouble(Aggregate::average).reversed()
+            .thenComparingInt(aggregate -> aggregate.propertyId);
+
+    private final Map<Integer, Aggregate> aggregates = new HashMap<>();
+    private final TreeSet<Aggregate> ranking = new TreeSet<>(BY_AVERAGE_DESC);
+
+    public synchronized void add(Review review) {
+        Aggregate current = aggregates.get(review.getPropertyID());
+        if (current != null) {
+            ranking.remove(current);
+        }
+        Aggregate updated = current == null
+                ? new Aggregate(review.getPropertyID(), 1, review.getRating())
+                : new Aggregate(current.propertyId, current.count + 1, current.sum + review.getRating());
+        aggregates.put(updated.propertyId, updated);
+        ranking.add(updated);
+    }
+
+    public synchronized void removeProperty(int propertyId) {
+        Aggregate removed = aggregates.remove(propertyId);
+        if (removed != null) {
+            ranking.remove(removed);
+        }
+    }
+
+    public synchronized double averageRating(int propertyId) {
+        Aggregate aggregate = aggregates.get(propertyId);
+        return aggregate == null ? 0.0 : aggregate.average();
+    }
+
+    public synchronized long reviewCount(int propertyId) {
+        Aggregate aggregate = aggregates.get(propertyId);
+        return aggregate == null ? 0 : aggregate.count;
+    }
+
+    /** Ids of the best rated properties, highest average first. */
+    public synchronized List<Integer> topRated(int limit) {
+        List<Integer> propertyIds = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Aggregate aggregate : ranking) {
+            if (propertyIds.size() == limit) {
+                break;
+            }
+            propertyIds.add(aggregate.propertyId);
+        }
+        return propertyIds;
+    }
+
+    /** Ids of the properties whose average rating is at least {@code minRating}, best first. */
+    public synchronized List<Integer> ratedAtLeast(double minRating) {
+        List<Integer> propertyIds = new ArrayList<>();
+        for (Aggregate aggregate : ranking) {
+            if (aggregate.average() < minRating) {
+                break;
+            }
+            propertyIds.add(aggregate.propertyId);
+        }
+        return propertyIds;
+    }
+
+    public synchronized List<Integer> ranked() {
+        return topRated(ranking.size());
+    }
+
+    private static final class Aggregate {
+        private final int propertyId;
+        private final long count;
+        private final double sum;
+
+        private Aggregate(int propertyId, long count, double sum) {
+            this.propertyId = propertyId;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        private double average() {
+            return sum / count;
+        }
+    }
+}
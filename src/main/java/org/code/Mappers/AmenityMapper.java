@@ -1,29 +1,46 @@
 package org.code.Mappers;
 
 import org.code.Entities.Amenity;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class AmenityMapper implements EntityMapper<Amenity> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "name", "name",
+            "description", "description");
+
     @Override
-    public String getInsertValues(Amenity amenity) {
-        return amenity.getId() + ", '" + amenity.getName() + "', '" + amenity.getDescription() + "'";
+    public String getTable() {
+        return "amenities";
     }
 
     @Override
-    public Amenity mapRow(ResultSet rs) throws SQLException {
-        return new Amenity(rs.getInt("amenityID"), rs.getString("name"), rs.getString("description"));
+    public String getIdColumn() {
+        return "amenityID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(Amenity amenity) {
-        return "name = '" + amenity.getName() + "', description = '" + amenity.getDescription() + "'";
+    public int bindValues(PreparedStatement statement, int index, Amenity amenity) throws SQLException {
+        statement.setString(index++, amenity.getName());
+        statement.setString(index++, amenity.getDescription());
+        return index;
+    }
+
+    @Override
+    public Amenity mapRow(ResultSet rs) throws SQLException {
+        return new Amenity(rs.getInt("amenityID"), rs.getString("name"), rs.getString("description"));
     }
 
     @Override
     public int getId(Amenity amenity) {
         return amenity.getId();
     }
-}
\ No newline at end of file
+}
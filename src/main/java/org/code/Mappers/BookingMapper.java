@@ -1,30 +1,77 @@
 package org.code.Mappers;
 
 import org.code.Entities.Booking;
-import org.code.Mappers.EntityMapper;
+import org.code.Entities.Payment;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
+/** Reads join the payment in, so a booking comes back with its payment in the same row. */
 public class BookingMapper implements EntityMapper<Booking> {
+    private static final String PAYMENT_PREFIX = "payment.";
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "checkInDate", "check_in_date",
+            "checkOutDate", "check_out_date",
+            "totalPrice", "total_price",
+            "guestID", "guest_id",
+            "propertyID", "property_id",
+            "payment", "payment_id");
+
+    private final PaymentMapper paymentMapper = new PaymentMapper();
+
     @Override
-    public String getInsertValues(Booking booking) {
-        return booking.getId() + ", '" + booking.getCheckInDate() + "', '" + booking.getCheckOutDate() + "', " + booking.getTotalPrice() + ", " + booking.getGuestID() + ", " + booking.getPropertyID() + ", " + booking.getPayment().getId();
+    public String getTable() {
+        return "bookings";
     }
 
     @Override
-    public Booking mapRow(ResultSet rs) throws SQLException {
-        // Assuming PaymentMapper and other dependencies are properly implemented
-        return new Booking(rs.getInt("bookingID"), rs.getDate("checkOutDate"), rs.getDate("checkInDate"), rs.getDouble("totalPrice"), rs.getInt("guestID"), rs.getInt("propertyID"), new PaymentMapper().mapRow(rs));
+    public String getIdColumn() {
+        return "bookingID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public String getSelect() {
+        return "SELECT bookings.*, payments.amount, payments.date, payments.processed FROM bookings"
+                + " LEFT JOIN payments ON payments.paymentID = bookings.payment_id";
+    }
+
+    /** Also resolves payment fields such as "payment.processed" to the joined payments table. */
+    @Override
+    public String columnFor(String field) {
+        if (field.startsWith(PAYMENT_PREFIX)) {
+            return paymentMapper.columnFor(field.substring(PAYMENT_PREFIX.length()));
+        }
+        return EntityMapper.super.columnFor(field);
     }
 
     @Override
-    public String getUpdateValues(Booking booking) {
-        return "checkInDate = '" + booking.getCheckInDate() + "', checkOutDate = '" + booking.getCheckOutDate() + "', totalPrice = " + booking.getTotalPrice() + ", guestID = " + booking.getGuestID() + ", propertyID = " + booking.getPropertyID() + ", paymentID = " + booking.getPayment().getId();
+    public int bindValues(PreparedStatement statement, int index, Booking booking) throws SQLException {
+        SqlValues.setDate(statement, index++, booking.getCheckInDate());
+        SqlValues.setDate(statement, index++, booking.getCheckOutDate());
+        statement.setDouble(index++, booking.getTotalPrice());
+        statement.setInt(index++, booking.getGuestID());
+        statement.setInt(index++, booking.getPropertyID());
+        SqlValues.setReference(statement, index++, booking.getPayment());
+        return index;
+    }
+
+    @Override
+    public Booking mapRow(ResultSet rs) throws SQLException {
+        int paymentId = rs.getInt("payment_id");
+        Payment payment = rs.wasNull() ? null : PaymentMapper.mapRow(rs, paymentId);
+        return new Booking(rs.getInt("bookingID"), SqlValues.getDate(rs, "check_out_date"), SqlValues.getDate(rs, "check_in_date"),
+                rs.getDouble("total_price"), rs.getInt("guest_id"), rs.getInt("property_id"), payment);
     }
 
     @Override
     public int getId(Booking booking) {
         return booking.getId();
     }
-}
\ No newline at end of file
+}
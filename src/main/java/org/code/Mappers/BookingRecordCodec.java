@@ -0,0 +1,55 @@
+package org.code.Mappers;
+
+import org.code.Entities.Booking;
+import org.code.Entities.Payment;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
+
+/**
+ * Layout: [bookingID:4][checkIn:8][checkOut:8][totalPrice:8][guestID:4][propertyID:4][paymentID:4].
+ * Only the payment id is stored; the payment itself is looked up through the given resolver.
+ */
+public class BookingRecordCodec implements RecordCodec<Booking> {
+    private static final int CHECK_IN = 4;
+    private static final int CHECK_OUT = CHECK_IN + Long.BYTES;
+    private static final int TOTAL_PRICE = CHECK_OUT + Long.BYTES;
+    private static final int GUEST_ID = TOTAL_PRICE + Double.BYTES;
+    private static final int PROPERTY_ID = GUEST_ID + Integer.BYTES;
+    private static final int PAYMENT_ID = PROPERTY_ID + Integer.BYTES;
+
+    private final IntFunction<Payment> paymentResolver;
+
+    public BookingRecordCodec(IntFunction<Payment> paymentResolver) {
+        this.paymentResolver = paymentResolver;
+    }
+
+    @Override
+    public int recordSize() {
+        return PAYMENT_ID + Integer.BYTES;
+    }
+
+    @Override
+    public void write(Booking booking, ByteBuffer buffer, int offset) {
+        buffer.putInt(offset, booking.getBookingID());
+        buffer.putLong(offset + CHECK_IN, RecordDates.toMillis(booking.getCheckInDate()));
+        buffer.putLong(offset + CHECK_OUT, RecordDates.toMillis(booking.getCheckOutDate()));
+        buffer.putDouble(offset + TOTAL_PRICE, booking.getTotalPrice());
+        buffer.putInt(offset + GUEST_ID, booking.getGuestID());
+        buffer.putInt(offset + PROPERTY_ID, booking.getPropertyID());
+        buffer.putInt(offset + PAYMENT_ID, booking.getPayment() == null ? 0 : booking.getPayment().getPaymentID());
+    }
+
+    @Override
+    public Booking read(ByteBuffer buffer, int offset) {
+        int paymentId = buffer.getInt(offset + PAYMENT_ID);
+        return new Booking(
+                buffer.getInt(offset),
+                RecordDates.fromMillis(buffer.getLong(offset + CHECK_OUT)),
+                RecordDates.fromMillis(buffer.getLong(offset + CHECK_IN)),
+                buffer.getDouble(offset + TOTAL_PRICE),
+                buffer.getInt(offset + GUEST_ID),
+                buffer.getInt(offset + PROPERTY_ID),
+                paymentId == 0 ? null : paymentResolver.apply(paymentId));
+    }
+}
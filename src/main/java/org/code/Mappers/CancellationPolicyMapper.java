@@ -1,29 +1,44 @@
 package org.code.Mappers;
 
 import org.code.Entities.CancellationPolicy;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class CancellationPolicyMapper implements EntityMapper<CancellationPolicy> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "description", "description");
+
     @Override
-    public String getInsertValues(CancellationPolicy policy) {
-        return policy.getId() + ", '" + policy.getDescription() + "'";
+    public String getTable() {
+        return "cancellation_policies";
     }
 
     @Override
-    public CancellationPolicy mapRow(ResultSet rs) throws SQLException {
-        return new CancellationPolicy(rs.getInt("policyID"), rs.getString("description"));
+    public String getIdColumn() {
+        return "policyID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(CancellationPolicy policy) {
-        return "description = '" + policy.getDescription() + "'";
+    public int bindValues(PreparedStatement statement, int index, CancellationPolicy policy) throws SQLException {
+        statement.setString(index++, policy.getDescription());
+        return index;
+    }
+
+    @Override
+    public CancellationPolicy mapRow(ResultSet rs) throws SQLException {
+        return new CancellationPolicy(rs.getInt("policyID"), rs.getString("description"));
     }
 
     @Override
     public int getId(CancellationPolicy policy) {
         return policy.getId();
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,37 @@
 package org.code.Mappers;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
+/**
+ * Maps an entity to its database table for JdbcRepository. Entity values only reach the database
+ * as bound statement parameters, never as SQL text.
+ */
 public interface EntityMapper<T> {
-    String getInsertValues(T entity);
+    String getTable();
+
+    String getIdColumn();
+
+    /** The non-id columns keyed by entity field name, in the order bindValues binds them. */
+    Map<String, String> getColumns();
+
+    /** Binds the non-id column values starting at parameter {@code index}; returns the next free index. */
+    int bindValues(PreparedStatement statement, int index, T entity) throws SQLException;
+
     T mapRow(ResultSet rs) throws SQLException;
-    String getUpdateValues(T entity);
+
     int getId(T entity);
+
+    /** The SELECT ... FROM part of every read; mappers that load an association join it in here. */
+    default String getSelect() {
+        return "SELECT * FROM " + getTable();
+    }
+
+    /** The table-qualified column of an entity field, or null if the field is not mapped. */
+    default String columnFor(String field) {
+        String column = getColumns().get(field);
+        return column == null ? null : getTable() + "." + column;
+    }
 }
@@ -1,29 +1,50 @@
 package org.code.Mappers;
 
 import org.code.Entities.Guest;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class GuestMapper implements EntityMapper<Guest> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "name", "name",
+            "email", "email",
+            "phone", "phone",
+            "guestRating", "guest_rating");
+
     @Override
-    public String getInsertValues(Guest guest) {
-        return guest.getId() + ", '" + guest.getName() + "', '" + guest.getEmail() + "', '" + guest.getPhone() + "', " + guest.getGuestRating();
+    public String getTable() {
+        return "guests";
     }
 
     @Override
-    public Guest mapRow(ResultSet rs) throws SQLException {
-        return new Guest(rs.getInt("userID"), rs.getString("name"), rs.getString("email"), rs.getString("phone"), rs.getDouble("guestRating"));
+    public String getIdColumn() {
+        return "userID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(Guest guest) {
-        return "name = '" + guest.getName() + "', email = '" + guest.getEmail() + "', phone = '" + guest.getPhone() + "', guestRating = " + guest.getGuestRating();
+    public int bindValues(PreparedStatement statement, int index, Guest guest) throws SQLException {
+        statement.setString(index++, guest.getName());
+        statement.setString(index++, guest.getEmail());
+        statement.setString(index++, guest.getPhone());
+        statement.setDouble(index++, guest.getGuestRating());
+        return index;
+    }
+
+    @Override
+    public Guest mapRow(ResultSet rs) throws SQLException {
+        return new Guest(rs.getInt("userID"), rs.getString("name"), rs.getString("email"), rs.getString("phone"), rs.getDouble("guest_rating"));
     }
 
     @Override
     public int getId(Guest guest) {
         return guest.getId();
     }
-}
\ No newline at end of file
+}
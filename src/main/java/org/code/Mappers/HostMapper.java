@@ -1,29 +1,50 @@
 package org.code.Mappers;
 
 import org.code.Entities.Host;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class HostMapper implements EntityMapper<Host> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "name", "name",
+            "email", "email",
+            "phone", "phone",
+            "hostRating", "host_rating");
+
     @Override
-    public String getInsertValues(Host host) {
-        return host.getId() + ", '" + host.getName() + "', '" + host.getEmail() + "', '" + host.getPhone() + "', " + host.getHostRating();
+    public String getTable() {
+        return "\"hosts\"";
     }
 
     @Override
-    public Host mapRow(ResultSet rs) throws SQLException {
-        return new Host(rs.getInt("userID"), rs.getString("name"), rs.getString("email"), rs.getString("phone"), rs.getDouble("hostRating"));
+    public String getIdColumn() {
+        return "userID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(Host host) {
-        return "name = '" + host.getName() + "', email = '" + host.getEmail() + "', phone = '" + host.getPhone() + "', hostRating = " + host.getHostRating();
+    public int bindValues(PreparedStatement statement, int index, Host host) throws SQLException {
+        statement.setString(index++, host.getName());
+        statement.setString(index++, host.getEmail());
+        statement.setString(index++, host.getPhone());
+        statement.setDouble(index++, host.getHostRating());
+        return index;
+    }
+
+    @Override
+    public Host mapRow(ResultSet rs) throws SQLException {
+        return new Host(rs.getInt("userID"), rs.getString("name"), rs.getString("email"), rs.getString("phone"), rs.getDouble("host_rating"));
     }
 
     @Override
     public int getId(Host host) {
         return host.getId();
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,46 @@
 package org.code.Mappers;
 
 import org.code.Entities.Location;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class LocationMapper implements EntityMapper<Location> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "city", "city",
+            "country", "country");
+
     @Override
-    public String getInsertValues(Location location) {
-        return location.getId() + ", '" + location.getCity() + "', '" + location.getCountry() + "'";
+    public String getTable() {
+        return "locations";
     }
 
     @Override
-    public Location mapRow(ResultSet rs) throws SQLException {
-        return new Location(rs.getInt("locationID"), rs.getString("city"), rs.getString("country"));
+    public String getIdColumn() {
+        return "locationID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(Location location) {
-        return "city = '" + location.getCity() + "', country = '" + location.getCountry() + "'";
+    public int bindValues(PreparedStatement statement, int index, Location location) throws SQLException {
+        statement.setString(index++, location.getCity());
+        statement.setString(index++, location.getCountry());
+        return index;
+    }
+
+    @Override
+    public Location mapRow(ResultSet rs) throws SQLException {
+        return new Location(rs.getInt("locationID"), rs.getString("city"), rs.getString("country"));
     }
 
     @Override
     public int getId(Location location) {
         return location.getId();
     }
-}
\ No newline at end of file
+}
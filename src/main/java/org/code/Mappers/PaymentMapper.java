@@ -1,29 +1,57 @@
 package org.code.Mappers;
 
 import org.code.Entities.Payment;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class PaymentMapper implements EntityMapper<Payment> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "amount", "amount",
+            "date", "date",
+            "processed", "processed");
+
     @Override
-    public String getInsertValues(Payment payment) {
-        return payment.getId() + ", " + payment.getAmount() + ", '" + payment.getDate() + "', " + payment.isProcessed();
+    public String getTable() {
+        return "payments";
     }
 
     @Override
-    public Payment mapRow(ResultSet rs) throws SQLException {
-        return new Payment(rs.getInt("paymentID"), rs.getDouble("amount"), rs.getDate("date"));
+    public String getIdColumn() {
+        return "paymentID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(Payment payment) {
-        return "amount = " + payment.getAmount() + ", date = '" + payment.getDate() + "', processed = " + payment.isProcessed();
+    public int bindValues(PreparedStatement statement, int index, Payment payment) throws SQLException {
+        statement.setDouble(index++, payment.getAmount());
+        SqlValues.setDate(statement, index++, payment.getDate());
+        statement.setBoolean(index++, payment.isProcessed());
+        return index;
+    }
+
+    @Override
+    public Payment mapRow(ResultSet rs) throws SQLException {
+        return mapRow(rs, rs.getInt("paymentID"));
+    }
+
+    // Also used for payments joined into another row, where the id comes from the foreign key
+    static Payment mapRow(ResultSet rs, int paymentId) throws SQLException {
+        Payment payment = new Payment(paymentId, rs.getDouble("amount"), SqlValues.getDate(rs, "date"));
+        if (rs.getBoolean("processed")) {
+            payment.processPayment();
+        }
+        return payment;
     }
 
     @Override
     public int getId(Payment payment) {
         return payment.getId();
     }
-}
\ No newline at end of file
+}
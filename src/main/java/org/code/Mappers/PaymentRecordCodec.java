@@ -0,0 +1,35 @@
+package org.code.Mappers;
+
+import org.code.Entities.Payment;
+
+import java.nio.ByteBuffer;
+
+/** Layout: [paymentID:4][amount:8][date:8][processed:1]. */
+public class PaymentRecordCodec implements RecordCodec<Payment> {
+    private static final int AMOUNT = 4;
+    private static final int DATE = AMOUNT + Double.BYTES;
+    private static final int PROCESSED = DATE + Long.BYTES;
+
+    @Override
+    public int recordSize() {
+        return PROCESSED + 1;
+    }
+
+    @Override
+    public void write(Payment payment, ByteBuffer buffer, int offset) {
+        buffer.putInt(offset, payment.getPaymentID());
+        buffer.putDouble(offset + AMOUNT, payment.getAmount());
+        buffer.putLong(offset + DATE, RecordDates.toMillis(payment.getDate()));
+        buffer.put(offset + PROCESSED, (byte) (payment.isProcessed() ? 1 : 0));
+    }
+
+    @Override
+    public Payment read(ByteBuffer buffer, int offset) {
+        Payment payment = new Payment(buffer.getInt(offset), buffer.getDouble(offset + AMOUNT),
+                RecordDates.fromMillis(buffer.getLong(offset + DATE)));
+        if (buffer.get(offset + PROCESSED) == 1) {
+            payment.processPayment();
+        }
+        return payment;
+    }
+}
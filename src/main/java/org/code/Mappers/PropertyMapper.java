@@ -1,30 +1,74 @@
 package org.code.Mappers;
 
+import org.code.Entities.CancellationPolicy;
+import org.code.Entities.Location;
 import org.code.Entities.Property;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Reads join the location and cancellation policy in. Amenity ids and reviews live in their own
+ * tables and are not loaded.
+ */
 public class PropertyMapper implements EntityMapper<Property> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "hostID", "host_id",
+            "address", "address",
+            "pricePerNight", "price_per_night",
+            "description", "description",
+            "location", "location_id",
+            "cancellationPolicy", "cancellation_policy_id");
+
     @Override
-    public String getInsertValues(Property property) {
-        return property.getId() + ", '" + property.getAddress() + "', " + property.getPricePerNight() + ", '" + property.getDescription() + "', " + property.getLocation().getId() + ", " + property.getHostID();
+    public String getTable() {
+        return "properties";
     }
 
     @Override
-    public Property mapRow(ResultSet rs) throws SQLException {
-        // Assuming LocationMapper and other dependencies are properly implemented
-        return new Property(rs.getInt("propertyID"), rs.getString("address"), rs.getDouble("pricePerNight"), rs.getString("description"), new LocationMapper().mapRow(rs), null, null, rs.getInt("hostID"));
+    public String getIdColumn() {
+        return "propertyID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public String getSelect() {
+        return "SELECT properties.*, locations.city, locations.country, cancellation_policies.description AS policy_description"
+                + " FROM properties"
+                + " LEFT JOIN locations ON locations.locationID = properties.location_id"
+                + " LEFT JOIN cancellation_policies ON cancellation_policies.policyID = properties.cancellation_policy_id";
+    }
+
+    @Override
+    public int bindValues(PreparedStatement statement, int index, Property property) throws SQLException {
+        statement.setInt(index++, property.getHostID());
+        statement.setString(index++, property.getAddress());
+        statement.setDouble(index++, property.getPricePerNight());
+        statement.setString(index++, property.getDescription());
+        SqlValues.setReference(statement, index++, property.getLocation());
+        SqlValues.setReference(statement, index++, property.getCancellationPolicy());
+        return index;
     }
 
     @Override
-    public String getUpdateValues(Property property) {
-        return "address = '" + property.getAddress() + "', pricePerNight = " + property.getPricePerNight() + ", description = '" + property.getDescription() + "', locationID = " + property.getLocation().getId() + ", hostID = " + property.getHostID();
+    public Property mapRow(ResultSet rs) throws SQLException {
+        int locationId = rs.getInt("location_id");
+        Location location = rs.wasNull() ? null : new Location(locationId, rs.getString("city"), rs.getString("country"));
+        int policyId = rs.getInt("cancellation_policy_id");
+        CancellationPolicy policy = rs.wasNull() ? null : new CancellationPolicy(policyId, rs.getString("policy_description"));
+        return new Property(rs.getInt("propertyID"), rs.getString("address"), rs.getDouble("price_per_night"),
+                rs.getString("description"), location, List.of(), policy, rs.getInt("host_id"));
     }
 
     @Override
     public int getId(Property property) {
         return property.getId();
     }
-}
\ No newline at end of file
+}
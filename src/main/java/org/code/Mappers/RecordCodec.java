@@ -0,0 +1,14 @@
+package org.code.Mappers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary layout of an entity, used by MappedRecordRepository.
+ * Reads and writes use absolute offsets so they never touch the buffer's position.
+ * Every layout starts with the entity id as a 4-byte int.
+ */
+public interface RecordCodec<T> {
+    int recordSize();
+    void write(T entity, ByteBuffer buffer, int offset);
+    T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,19 @@
+package org.code.Mappers;
+
+import java.util.Date;
+
+// Dates are stored as epoch millis, with Long.MIN_VALUE standing for null.
+final class RecordDates {
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private RecordDates() {
+    }
+
+    static long toMillis(Date date) {
+        return date == null ? NULL_DATE : date.getTime();
+    }
+
+    static Date fromMillis(long millis) {
+        return millis == NULL_DATE ? null : new Date(millis);
+    }
+}
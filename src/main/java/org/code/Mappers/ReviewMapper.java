@@ -1,29 +1,52 @@
 package org.code.Mappers;
 
 import org.code.Entities.Review;
-import org.code.Mappers.EntityMapper;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class ReviewMapper implements EntityMapper<Review> {
+    private static final Map<String, String> COLUMNS = SqlValues.columns(
+            "guestID", "guest_id",
+            "propertyID", "property_id",
+            "rating", "rating",
+            "comment", "comment",
+            "date", "date");
+
     @Override
-    public String getInsertValues(Review review) {
-        return review.getId() + ", " + review.getGuestID() + ", " + review.getPropertyID() + ", " + review.getRating() + ", '" + review.getComment() + "', '" + review.getDate() + "'";
+    public String getTable() {
+        return "reviews";
     }
 
     @Override
-    public Review mapRow(ResultSet rs) throws SQLException {
-        return new Review(rs.getInt("reviewID"), rs.getInt("guestID"), rs.getInt("propertyID"), rs.getDouble("rating"), rs.getString("comment"), rs.getDate("date"));
+    public String getIdColumn() {
+        return "reviewID";
+    }
+
+    @Override
+    public Map<String, String> getColumns() {
+        return COLUMNS;
     }
 
     @Override
-    public String getUpdateValues(Review review) {
-        return "guestID = " + review.getGuestID() + ", propertyID = " + review.getPropertyID() + ", rating = " + review.getRating() + ", comment = '" + review.getComment() + "', date = '" + review.getDate() + "'";
+    public int bindValues(PreparedStatement statement, int index, Review review) throws SQLException {
+        statement.setInt(index++, review.getGuestID());
+        statement.setInt(index++, review.getPropertyID());
+        statement.setDouble(index++, review.getRating());
+        statement.setString(index++, review.getComment());
+        SqlValues.setDate(statement, index++, review.getDate());
+        return index;
+    }
+
+    @Override
+    public Review mapRow(ResultSet rs) throws SQLException {
+        return new Review(rs.getInt("reviewID"), rs.getInt("guest_id"), rs.getInt("property_id"), rs.getDouble("rating"), rs.getString("comment"), SqlValues.getDate(rs, "date"));
     }
 
     @Override
     public int getId(Review review) {
         return review.getId();
     }
-}
\ No newline at end of file
+}
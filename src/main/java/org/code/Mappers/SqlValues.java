@@ -0,0 +1,49 @@
+package org.code.Mappers;
+
+import org.code.Entities.HasId;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Binding helpers shared by the mappers; dates are stored as timestamps, as Hibernate maps java.util.Date.
+final class SqlValues {
+    private SqlValues() {
+    }
+
+    /** Pairs of entity field and column name, kept in the given order. */
+    static Map<String, String> columns(String... fieldsAndColumns) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < fieldsAndColumns.length; i += 2) {
+            columns.put(fieldsAndColumns[i], fieldsAndColumns[i + 1]);
+        }
+        return Collections.unmodifiableMap(columns);
+    }
+
+    static void setDate(PreparedStatement statement, int index, Date date) throws SQLException {
+        if (date == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(index, new Timestamp(date.getTime()));
+        }
+    }
+
+    static Date getDate(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : new Date(timestamp.getTime());
+    }
+
+    static void setReference(PreparedStatement statement, int index, HasId entity) throws SQLException {
+        if (entity == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, entity.getId());
+        }
+    }
+}
@@ -2,16 +2,30 @@ package org.code;
 
 import org.code.Controller.PropertyBookingController;
 import org.code.Entities.*;
+import org.code.Ids.FileHighWaterMarkStore;
+import org.code.Ids.HighWaterMarkStore;
+import org.code.Ids.InMemoryHighWaterMarkStore;
+import org.code.Mappers.BookingMapper;
+import org.code.Mappers.BookingRecordCodec;
+import org.code.Mappers.PaymentMapper;
+import org.code.Mappers.PaymentRecordCodec;
 import org.code.Repository.DBRepository;
-import org.code.Repository.FileRepository;
 import org.code.Repository.IRepository;
 import org.code.Repository.InMemoryRepo;
+import org.code.Repository.JdbcRepository;
+import org.code.Repository.LogFileRepository;
+import org.code.Repository.MappedRecordRepository;
 import org.code.Services.PropertyBookingService;
 import org.code.Views.LoginView;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.Scanner;
 import java.util.List;
 import java.util.Date;
@@ -20,6 +34,8 @@ public class PropertyBookingApp {
     private PropertyBookingController controller;
     private final Scanner scanner;
     private static SessionFactory sessionFactory;
+    // Storage that holds files or connections open until the application exits
+    private final List<Closeable> openStorage = new ArrayList<>();
 
     public PropertyBookingApp(PropertyBookingController controller) {
         this.controller = controller;
@@ -59,10 +75,29 @@ public class PropertyBookingApp {
         PropertyBookingController controller = new PropertyBookingController(bookingService);
         this.controller = controller;
 
-        new LoginView(controller, scanner).run();
+        try {
+            new LoginView(controller, scanner).run();
+        } finally {
+            closeStorage();
+        }
         System.out.println("Exiting the Property Booking System. Goodbye!");
     }
 
+    private void closeStorage() {
+        for (Closeable storage : openStorage) {
+            try {
+                storage.close();
+            } catch (Exception e) {
+                System.out.println("Error closing storage: " + e.getMessage());
+            }
+        }
+        openStorage.clear();
+        // Stops the connection pool as well
+        if (sessionFactory != null && sessionFactory.isOpen()) {
+            sessionFactory.close();
+        }
+    }
+
     private PropertyBookingService initializeRepositories(Scanner scanner) {
         System.out.println("Select storage type:");
         System.out.println("1: In-Memory Storage");
@@ -81,6 +116,8 @@ public class PropertyBookingApp {
         IRepository<CancellationPolicy> cancellationPolicyRepo;
         IRepository<Payment> paymentRepo;
 
+        HighWaterMarkStore idMarks = new InMemoryHighWaterMarkStore();
+
         String basePath = "C:\\Users\\tudor\\Desktop\\proiect retele\\server\\property-booking-app\\src\\main\\java\\org\\code\\Files\\";
 
         switch (choice) {
@@ -96,33 +133,58 @@ public class PropertyBookingApp {
                 paymentRepo = new InMemoryRepo<>();
                 break;
             case 2:
-                hostRepo = new FileRepository<>(basePath + "hosts.txt");
-                guestRepo = new FileRepository<>(basePath + "guests.txt");
-                propertyRepo = new FileRepository<>(basePath + "properties.txt");
-                bookingRepo = new FileRepository<>(basePath + "bookings.txt");
-                reviewRepo = new FileRepository<>(basePath + "reviews.txt");
-                amenityRepo = new FileRepository<>(basePath + "amenities.txt");
-                locationRepo = new FileRepository<>(basePath + "locations.txt");
-                cancellationPolicyRepo = new FileRepository<>(basePath + "cancellationPolicies.txt");
-                paymentRepo = new FileRepository<>(basePath + "payments.txt");
+                hostRepo = new LogFileRepository<>(basePath + "hosts.txt");
+                guestRepo = new LogFileRepository<>(basePath + "guests.txt");
+                propertyRepo = new LogFileRepository<>(basePath + "properties.txt");
+                reviewRepo = new LogFileRepository<>(basePath + "reviews.txt");
+                amenityRepo = new LogFileRepository<>(basePath + "amenities.txt");
+                locationRepo = new LogFileRepository<>(basePath + "locations.txt");
+                cancellationPolicyRepo = new LogFileRepository<>(basePath + "cancellationPolicies.txt");
+                // Bookings and payments are fixed-width, so they get memory-mapped record files;
+                // the .txt files of earlier versions are converted on first open
+                MappedRecordRepository<Payment> mappedPayments = new MappedRecordRepository<>(
+                        basePath + "payments.dat", new PaymentRecordCodec(), basePath + "payments.txt");
+                paymentRepo = mappedPayments;
+                bookingRepo = new MappedRecordRepository<>(
+                        basePath + "bookings.dat", new BookingRecordCodec(mappedPayments::read), basePath + "bookings.txt");
+                idMarks = new FileHighWaterMarkStore(basePath + "ids.properties");
+                for (IRepository<?> repo : List.of(hostRepo, guestRepo, propertyRepo, reviewRepo, amenityRepo,
+                        locationRepo, cancellationPolicyRepo, bookingRepo, paymentRepo)) {
+                    openStorage.add((Closeable) repo);
+                }
                 break;
             case 3:
                 hostRepo = new DBRepository<>(sessionFactory, Host.class);
                 guestRepo = new DBRepository<>(sessionFactory, Guest.class);
                 propertyRepo = new DBRepository<>(sessionFactory, Property.class);
-                bookingRepo = new DBRepository<>(sessionFactory, Booking.class);
                 reviewRepo = new DBRepository<>(sessionFactory, Review.class);
                 amenityRepo = new DBRepository<>(sessionFactory, Amenity.class);
                 locationRepo = new DBRepository<>(sessionFactory, Location.class);
                 cancellationPolicyRepo = new DBRepository<>(sessionFactory, CancellationPolicy.class);
-                paymentRepo = new DBRepository<>(sessionFactory, Payment.class);
+                // Bookings and payments are the busiest tables, so they skip Hibernate for plain JDBC on the same pool
+                DataSource dataSource = dataSourceOf(sessionFactory);
+                if (dataSource != null) {
+                    bookingRepo = new JdbcRepository<>(dataSource, new BookingMapper(), JdbcRepository.DEFAULT_FETCH_SIZE, sessionFactory);
+                    paymentRepo = new JdbcRepository<>(dataSource, new PaymentMapper(), JdbcRepository.DEFAULT_FETCH_SIZE, sessionFactory);
+                } else {
+                    bookingRepo = new DBRepository<>(sessionFactory, Booking.class);
+                    paymentRepo = new DBRepository<>(sessionFactory, Payment.class);
+                }
                 break;
             default:
                 throw new IllegalArgumentException("Invalid choice. Please restart the application and select a valid option.");
         }
 
         return new PropertyBookingService(
-                hostRepo, guestRepo, propertyRepo, bookingRepo, reviewRepo, amenityRepo, locationRepo, cancellationPolicyRepo, paymentRepo, sessionFactory);
+                hostRepo, guestRepo, propertyRepo, bookingRepo, reviewRepo, amenityRepo, locationRepo, cancellationPolicyRepo, paymentRepo, sessionFactory, idMarks);
+    }
+
+    // The pool behind Hibernate, when its connection provider exposes one
+    private static DataSource dataSourceOf(SessionFactory sessionFactory) {
+        ConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        return provider.isUnwrappableAs(DataSource.class) ? provider.unwrap(DataSource.class) : null;
     }
 
     private void populateInMemoryData(PropertyBookingService bookingService) {
@@ -0,0 +1,79 @@
+package org.code.Repository;
+
+import org.code.Entities.PropertyListing;
+import org.code.Exceptions.DatabaseException;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Selects listings straight into PropertyListing with a constructor expression, so no Property
+ * is hydrated, no amenity collection is loaded and nothing is kept for dirty checking. Each call
+ * runs in its own read-only Session that never flushes.
+ */
+public class DBPropertyListingRepository implements IPropertyListingRepository {
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    private static final String SELECT_LISTING = "SELECT new org.code.Entities.PropertyListing("
+            + "p.propertyID, p.address, p.pricePerNight, l.city, l.country, c.description) "
+            + "FROM Property p LEFT JOIN p.location l LEFT JOIN p.cancellationPolicy c ";
+
+    private final SessionFactory sessionFactory;
+
+    public DBPropertyListingRepository(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public List<PropertyListing> page(int afterId, int limit) {
+        return readOnly("Error reading a page of property listings from the database.", session ->
+                session.createQuery(SELECT_LISTING + "WHERE p.propertyID > :afterId ORDER BY p.propertyID", PropertyListing.class)
+                        .setParameter("afterId", afterId)
+                        .setMaxResults(limit)
+                        .setFetchSize(limit)
+                        .setHint(QueryHints.READ_ONLY, true)
+                        .getResultList());
+    }
+
+    @Override
+    public List<PropertyListing> readAll(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return readOnly("Error reading property listings from the database.", session -> {
+            List<Integer> allIds = new ArrayList<>(ids);
+            List<PropertyListing> listings = new ArrayList<>(allIds.size());
+            for (int from = 0; from < allIds.size(); from += MAX_IN_LIST_SIZE) {
+                List<Integer> chunk = allIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, allIds.size()));
+                listings.addAll(session.createQuery(SELECT_LISTING + "WHERE p.propertyID IN :ids ORDER BY p.propertyID", PropertyListing.class)
+                        .setParameter("ids", chunk)
+                        .setFetchSize(chunk.size())
+                        .setHint(QueryHints.READ_ONLY, true)
+                        .getResultList());
+            }
+            if (allIds.size() > MAX_IN_LIST_SIZE) {
+                listings.sort(Comparator.comparingInt(PropertyListing::getId));
+            }
+            return listings;
+        });
+    }
+
+    private <R> R readOnly(String error, Function<Session, R> work) {
+        Session session = sessionFactory.openSession();
+        try {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return work.apply(session);
+        } catch (Exception e) {
+            throw new DatabaseException(error, e);
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -2,103 +2,381 @@ package org.code.Repository;
 
 import org.code.Entities.HasId;
 import org.code.Exceptions.DatabaseException;
+import org.code.Helpers.IntCounter;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.persister.entity.EntityPersister;
 
+import javax.persistence.AttributeNode;
+import javax.persistence.Cacheable;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DBRepository<T extends HasId> implements IRepository<T> {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
     private final SessionFactory sessionFactory;
     private final Class<T> entityType;
+    // Reference data marked @Cacheable also gets its queries cached; writes through Hibernate invalidate them
+    private final boolean cacheQueries;
+    // Named entity graph whose attributes reads initialize before the Session closes, or null
+    private final String fetchGraph;
+    private String idAttribute;
 
     public DBRepository(SessionFactory sessionFactory, Class<T> entityType) {
+        this(sessionFactory, entityType, null);
+    }
+
+    private DBRepository(SessionFactory sessionFactory, Class<T> entityType, String fetchGraph) {
         this.sessionFactory = sessionFactory;
         this.entityType = entityType;
+        this.cacheQueries = entityType.isAnnotationPresent(Cacheable.class);
+        this.fetchGraph = fetchGraph;
+    }
+
+    /**
+     * The graph's attributes are initialized through their own batch or subselect fetching rather
+     * than joined into the query, so paging stays in SQL and collections do not multiply rows.
+     */
+    @Override
+    public DBRepository<T> withFetchGraph(String graphName) {
+        return new DBRepository<>(sessionFactory, entityType, graphName);
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
     }
 
     @Override
     public void create(T entity) {
-        Session session = sessionFactory.openSession();
-        Transaction transaction = session.beginTransaction();
-        try {
-            session.save(entity);
-            transaction.commit();
-        } catch (ConstraintViolationException e) {
-            transaction.rollback();
-            throw new DatabaseException("Constraint violation: " + e.getConstraintName(), e);
-        } catch (Exception e) {
-            transaction.rollback();
-            throw new DatabaseException("Error creating entity in the database.", e);
-        } finally {
-            session.close();
-        }
+        write("Error creating entity in the database.", session -> session.save(entity));
+    }
+
+    /** Saves all entities in one transaction, sending the inserts in JDBC batches. */
+    @Override
+    public void createAll(Collection<T> entities) {
+        write("Error creating entities in the database.", session -> {
+            session.setJdbcBatchSize(BATCH_SIZE);
+            int count = 0;
+            for (T entity : entities) {
+                session.save(entity);
+                if (++count % BATCH_SIZE == 0) {
+                    flushBatch(session);
+                }
+            }
+            return null;
+        });
     }
 
     @Override
     public T read(int id) {
-        Session session = sessionFactory.openSession();
-        try {
-            return session.get(entityType, id);
-        } catch (Exception e) {
-            throw new DatabaseException("Error reading entity in the database.", e);
-        } finally {
-            session.close();
-        }
+        return read("Error reading entity in the database.", session -> {
+            T entity = session.get(entityType, id);
+            if (entity != null) {
+                loadGraph(session, List.of(entity));
+            }
+            return entity;
+        });
     }
 
+    /** Loads the ids with one IN query per MAX_IN_LIST_SIZE ids. */
     @Override
-    public List<T> readAll() {
-        return List.of();
+    public List<T> readAll(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return read("Error reading entities from the database.", session -> {
+            List<T> entities = session.byMultipleIds(entityType)
+                    .withBatchSize(MAX_IN_LIST_SIZE)
+                    .enableOrderedReturn(false)
+                    .multiLoad(new ArrayList<>(new HashSet<>(ids)));
+            entities.removeIf(Objects::isNull);
+            return loadGraph(session, entities);
+        });
     }
 
     @Override
     public void update(T entity) {
-        Session session = sessionFactory.openSession();
-        Transaction transaction = session.beginTransaction();
-        try {
+        write("Error updating entity in the database.", session -> {
             T existingEntity = session.get(entityType, entity.getId());
             if (existingEntity != null) {
                 session.merge(entity);
             }
-            transaction.commit();
-        } catch (Exception e) {
-            transaction.rollback();
-            throw new DatabaseException("Error updating entity in the database.", e);
-        } finally {
-            session.close();
-        }
+            return null;
+        });
+    }
+
+    /** Merges the entities that already exist in one transaction, sending the updates in JDBC batches. */
+    @Override
+    public void updateAll(Collection<T> entities) {
+        write("Error updating entities in the database.", session -> {
+            session.setJdbcBatchSize(BATCH_SIZE);
+            String query = String.format("SELECT e.%s FROM %s e WHERE e.%s IN :ids",
+                    idAttribute(), entityType.getSimpleName(), idAttribute());
+            List<T> chunk = new ArrayList<>(BATCH_SIZE);
+            for (T entity : entities) {
+                chunk.add(entity);
+                if (chunk.size() == BATCH_SIZE) {
+                    mergeExisting(session, query, chunk);
+                }
+            }
+            mergeExisting(session, query, chunk);
+            return null;
+        });
     }
 
     @Override
     public void delete(int id) {
-        Session session = sessionFactory.openSession();
-        Transaction transaction = session.beginTransaction();
-        try {
+        write("Error deleting entity in the database.", session -> {
             T entity = session.get(entityType, id);
             if (entity != null) {
                 session.delete(entity);
             }
-            transaction.commit();
-        } catch (Exception e) {
-            transaction.rollback();
-            throw new DatabaseException("Error deleting entity in the database.", e);
-        } finally {
-            session.close();
-        }
+            return null;
+        });
     }
 
     @Override
     public List<T> getAll() {
+        return read("Error reading all the entities in the database.", session -> {
+            String query = String.format("FROM %s", entityType.getSimpleName());
+            return loadGraph(session, session.createQuery(query, entityType)
+                    .setCacheable(cacheQueries)
+                    .getResultList());
+        });
+    }
+
+    @Override
+    public List<T> findBy(QuerySpec spec) {
+        return read("Error querying entities in the database.", session -> {
+            CriteriaBuilder builder = session.getCriteriaBuilder();
+            CriteriaQuery<T> query = builder.createQuery(entityType);
+            Root<T> root = query.from(entityType);
+
+            for (String association : spec.getFetches()) {
+                root.fetch(association, JoinType.LEFT);
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            for (QuerySpec.Condition condition : spec.getConditions()) {
+                predicates.add(predicateFor(builder, root, condition));
+            }
+            query.select(root).where(predicates.toArray(new Predicate[0]));
+            return loadGraph(session, session.createQuery(query)
+                    .setCacheable(cacheQueries)
+                    .getResultList());
+        });
+    }
+
+    @Override
+    public List<T> page(int afterId, int limit) {
+        return read("Error reading a page of entities from the database.", session -> {
+            String query = String.format("FROM %s e WHERE e.%s > :afterId ORDER BY e.%s",
+                    entityType.getSimpleName(), idAttribute(), idAttribute());
+            return loadGraph(session, session.createQuery(query, entityType)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(limit)
+                    .getResultList());
+        });
+    }
+
+    @Override
+    public IntCounter countGroupedBy(String field, int minCount) {
+        return read("Error counting entities in the database.", session -> {
+            String query = String.format("SELECT e.%s, COUNT(e) FROM %s e GROUP BY e.%s HAVING COUNT(e) >= :minCount",
+                    field, entityType.getSimpleName(), field);
+            List<Object[]> rows = session.createQuery(query, Object[].class)
+                    .setParameter("minCount", (long) minCount)
+                    .getResultList();
+
+            IntCounter counts = new IntCounter(rows.size());
+            for (Object[] row : rows) {
+                counts.add(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    public int maxId() {
+        return read("Error reading the highest id from the database.", session -> {
+            String query = String.format("SELECT MAX(e.%s) FROM %s e", idAttribute(), entityType.getSimpleName());
+            Integer max = session.createQuery(query, Integer.class).getSingleResult();
+            return max == null ? 0 : max;
+        });
+    }
+
+    // Always uses a Session of its own, since the stream outlives the call
+    @Override
+    public Stream<T> stream() {
         Session session = sessionFactory.openSession();
         try {
+            session.setDefaultReadOnly(true);
+            Transaction transaction = session.beginTransaction();
             String query = String.format("FROM %s", entityType.getSimpleName());
-            return session.createQuery(query, entityType).getResultList();
+            ScrollableResults results = session.createQuery(query, entityType)
+                    .setFetchSize(STREAM_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    T entity = entityType.cast(results.get(0));
+                    // Detach each row so the persistence context does not grow with the table
+                    session.evict(entity);
+                    action.accept(entity);
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    results.close();
+                    transaction.rollback();
+                } finally {
+                    session.close();
+                }
+            });
         } catch (Exception e) {
-            throw new DatabaseException("Error reading all the entities in the database.", e);
+            session.close();
+            throw new DatabaseException("Error streaming entities from the database.", e);
+        }
+    }
+
+    // Like update(), skips entities that are not in the database; one id lookup per chunk instead of one per row
+    private void mergeExisting(Session session, String query, List<T> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(chunk.size());
+        for (T entity : chunk) {
+            ids.add(entity.getId());
+        }
+        Set<Integer> existing = new HashSet<>(session.createQuery(query, Integer.class)
+                .setParameter("ids", ids)
+                .getResultList());
+        for (T entity : chunk) {
+            if (existing.contains(entity.getId())) {
+                session.merge(entity);
+            }
+        }
+        flushBatch(session);
+        chunk.clear();
+    }
+
+    // Initializing the first entity's association fetches it for the rest in the same subselect or batch
+    private List<T> loadGraph(Session session, List<T> entities) {
+        if (fetchGraph == null || entities.isEmpty()) {
+            return entities;
+        }
+        EntityPersister persister = sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(entityType);
+        for (AttributeNode<?> node : session.getEntityGraph(fetchGraph).getAttributeNodes()) {
+            for (T entity : entities) {
+                Hibernate.initialize(persister.getPropertyValue(entity, node.getAttributeName()));
+            }
+        }
+        return entities;
+    }
+
+    // Sends the pending batch; entities are only dropped from a Session this repository owns
+    private void flushBatch(Session session) {
+        session.flush();
+        if (TransactionTemplate.currentSession(sessionFactory) != session) {
+            session.clear();
+        }
+    }
+
+    // Runs the work in the unit of work bound to this thread, or in a Session of its own
+    private <R> R read(String error, Function<Session, R> work) {
+        Session bound = TransactionTemplate.currentSession(sessionFactory);
+        Session session = bound != null ? bound : sessionFactory.openSession();
+        try {
+            return work.apply(session);
+        } catch (Exception e) {
+            throw new DatabaseException(error, e);
+        } finally {
+            if (bound == null) {
+                session.close();
+            }
+        }
+    }
+
+    // Like read(), but outside a unit of work the Session also gets a transaction that commits here
+    private <R> R write(String error, Function<Session, R> work) {
+        Session bound = TransactionTemplate.currentSession(sessionFactory);
+        if (bound != null) {
+            try {
+                return work.apply(bound);
+            } catch (ConstraintViolationException e) {
+                throw new DatabaseException("Constraint violation: " + e.getConstraintName(), e);
+            } catch (Exception e) {
+                throw new DatabaseException(error, e);
+            }
+        }
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            R result = work.apply(session);
+            transaction.commit();
+            return result;
+        } catch (ConstraintViolationException e) {
+            transaction.rollback();
+            throw new DatabaseException("Constraint violation: " + e.getConstraintName(), e);
+        } catch (Exception e) {
+            transaction.rollback();
+            throw new DatabaseException(error, e);
         } finally {
             session.close();
         }
     }
-}
\ No newline at end of file
+
+    private String idAttribute() {
+        if (idAttribute == null) {
+            idAttribute = sessionFactory.getMetamodel().entity(entityType).getSingularAttributes().stream()
+                    .filter(SingularAttribute::isId)
+                    .map(SingularAttribute::getName)
+                    .findFirst()
+                    .orElseThrow(() -> new DatabaseException("No id attribute mapped for " + entityType.getSimpleName()));
+        }
+        return idAttribute;
+    }
+
+    private static Predicate predicateFor(CriteriaBuilder builder, Root<?> root, QuerySpec.Condition condition) {
+        Path<Object> path = pathOf(root, condition.getField());
+        Object value = condition.getValue();
+        return switch (condition.getOperator()) {
+            case IN -> ((Collection<?>) value).isEmpty() ? builder.disjunction() : path.in((Collection<?>) value);
+            case EQUAL -> value == null ? builder.isNull(path) : builder.equal(path, value);
+        };
+    }
+
+    private static Path<Object> pathOf(Root<?> root, String field) {
+        Path<Object> path = null;
+        for (String name : field.split("\\.")) {
+            path = path == null ? root.get(name) : path.get(name);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,33 @@
+package org.code.Repository;
+
+import org.code.Entities.Property;
+import org.code.Entities.PropertyListing;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Listings built from the full properties, for storage that has no cheaper way to read them. */
+public class DerivedPropertyListingRepository implements IPropertyListingRepository {
+    private final IRepository<Property> propertyRepo;
+
+    public DerivedPropertyListingRepository(IRepository<Property> propertyRepo) {
+        this.propertyRepo = propertyRepo;
+    }
+
+    @Override
+    public List<PropertyListing> page(int afterId, int limit) {
+        return propertyRepo.page(afterId, limit).stream()
+                .map(PropertyListing::of)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<PropertyListing> readAll(Collection<Integer> ids) {
+        return propertyRepo.readAll(ids).stream()
+                .sorted(Comparator.comparingInt(Property::getId))
+                .map(PropertyListing::of)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,13 +1,19 @@
 package org.code.Repository;
 
 import org.code.Entities.HasId;
+import org.code.Helpers.IntCounter;
 import org.code.Repository.IRepository;
 
 import java.io.*;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FileRepository<T extends HasId> implements IRepository<T> {
     private final String filePath;
@@ -27,8 +33,12 @@ public class FileRepository<T extends HasId> implements IRepository<T> {
     }
 
     @Override
-    public List<T> readAll() {
-        return List.of();
+    public List<T> readAll(Collection<Integer> ids) {
+        Map<Integer, T> data = readDataFromFile();
+        return new HashSet<>(ids).stream()
+                .map(data::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -46,6 +56,35 @@ public class FileRepository<T extends HasId> implements IRepository<T> {
         return readDataFromFile().values().stream().toList();
     }
 
+    @Override
+    public List<T> findBy(QuerySpec spec) {
+        return readDataFromFile().values().stream()
+                .filter(spec::matches)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> page(int afterId, int limit) {
+        return readDataFromFile().entrySet().stream()
+                .filter(entry -> entry.getKey() > afterId)
+                .sorted(Map.Entry.comparingByKey())
+                .limit(limit)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public IntCounter countGroupedBy(String field, int minCount) {
+        IntCounter counter = new IntCounter();
+        readDataFromFile().values().forEach(entity -> counter.increment(QuerySpec.intValueOf(entity, field)));
+        return counter.atLeast(minCount);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return readDataFromFile().values().stream();
+    }
+
     private void doInFile(Consumer<Map<Integer, T>> function) {
         Map<Integer, T> data = readDataFromFile();
         function.accept(data);
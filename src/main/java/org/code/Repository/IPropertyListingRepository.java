@@ -0,0 +1,15 @@
+package org.code.Repository;
+
+import org.code.Entities.PropertyListing;
+
+import java.util.Collection;
+import java.util.List;
+
+/** Read-only property summaries for listing screens. */
+public interface IPropertyListingRepository {
+    /** Returns up to {@code limit} listings with an id greater than {@code afterId}, in id order. */
+    List<PropertyListing> page(int afterId, int limit);
+
+    /** Reads the listings for the given ids in id order; ids that do not exist are skipped. */
+    List<PropertyListing> readAll(Collection<Integer> ids);
+}
@@ -1,14 +1,58 @@
 package org.code.Repository;
 
+import org.code.Entities.HasId;
+import org.code.Helpers.IntCounter;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface IRepository<T> {
     void create(T obj);
     T read(int id);
 
-    List<T> readAll();
+    /** Reads the entities with the given ids in one go; ids that do not exist are skipped. */
+    List<T> readAll(Collection<Integer> ids);
 
     void update(T obj);
     void delete(int id);
     List<T> getAll();
+
+    List<T> findBy(QuerySpec spec);
+
+    /** Returns up to {@code limit} entities with an id greater than {@code afterId}, in id order. */
+    List<T> page(int afterId, int limit);
+
+    /** Counts entities per value of an int field, keeping only the values seen at least {@code minCount} times. */
+    IntCounter countGroupedBy(String field, int minCount);
+
+    /** Streams every entity without materializing the whole table; close the stream when done. */
+    Stream<T> stream();
+
+    /** The highest stored id, or 0 when there are none. */
+    default int maxId() {
+        try (Stream<T> entities = stream()) {
+            return entities.mapToInt(entity -> ((HasId) entity).getId()).max().orElse(0);
+        }
+    }
+
+    default void createAll(Collection<T> objs) {
+        objs.forEach(this::create);
+    }
+
+    default void updateAll(Collection<T> objs) {
+        objs.forEach(this::update);
+    }
+
+    /**
+     * Returns a view of this repository whose reads also load the associations in the named
+     * entity graph. Storage that keeps whole objects returns itself.
+     */
+    default IRepository<T> withFetchGraph(String graphName) {
+        return this;
+    }
+
+    default List<T> findBy(String field, Object value) {
+        return findBy(QuerySpec.where(field, value));
+    }
 }
@@ -1,44 +1,55 @@
 package org.code.Repository;
 
 import org.code.Entities.HasId;
+import org.code.Helpers.ConcurrentIntMap;
+import org.code.Helpers.IntCounter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class InMemoryRepo<T> implements IRepository<T> {
-    private Map<Integer, T> storage = new HashMap<>();
-    private int currentId = 1;
+    private final ConcurrentIntMap<T> storage = new ConcurrentIntMap<>();
+    private final AtomicInteger currentId = new AtomicInteger(1);
 
     @Override
     public void create(T obj) {
-    if(obj instanceof HasId) {
-        HasId entity = (HasId) obj;
-        entity.setId(currentId++);
-        storage.put(entity.getId(), obj);
-    } else {
-        throw new IllegalArgumentException("Object does not have an ID");
-    }
+        if (obj instanceof HasId) {
+            HasId entity = (HasId) obj;
+            entity.setId(currentId.getAndIncrement());
+            storage.put(entity.getId(), obj);
+        } else {
+            throw new IllegalArgumentException("Object does not have an ID");
+        }
     }
 
     @Override
     public T read(int id) {
-        return storage.get(id);
+        return id == 0 ? null : storage.get(id);
     }
 
     @Override
-    public List<T> readAll() {
-        return List.of();
+    public List<T> readAll(Collection<Integer> ids) {
+        List<T> entities = new ArrayList<>(ids.size());
+        for (int id : new HashSet<>(ids)) {
+            T entity = read(id);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
     }
 
     @Override
     public void update(T obj) {
-        if(obj instanceof HasId) {
+        if (obj instanceof HasId) {
             HasId entity = (HasId) obj;
-            if(storage.containsKey(entity.getId())) {
-                storage.put(entity.getId(), obj);
-            } else {
+            if (entity.getId() == 0 || storage.replace(entity.getId(), obj) == null) {
                 throw new IllegalArgumentException("Object does not exist in storage");
             }
         } else {
@@ -48,15 +59,49 @@ public class InMemoryRepo<T> implements IRepository<T> {
 
     @Override
     public void delete(int id) {
-        if(storage.containsKey(id)) {
-            storage.remove(id);
-        } else {
+        if (id == 0 || storage.remove(id) == null) {
             throw new IllegalArgumentException("Object does not exist in storage");
         }
     }
 
     @Override
     public List<T> getAll() {
-        return new ArrayList<>(storage.values());
+        return storage.values();
+    }
+
+    @Override
+    public List<T> findBy(QuerySpec spec) {
+        return storage.values().stream()
+                .filter(spec::matches)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> page(int afterId, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        TreeMap<Integer, T> window = new TreeMap<>();
+        storage.forEach((id, entity) -> {
+            if (id > afterId && (window.size() < limit || id < window.lastKey())) {
+                window.put(id, entity);
+                if (window.size() > limit) {
+                    window.pollLastEntry();
+                }
+            }
+        });
+        return new ArrayList<>(window.values());
+    }
+
+    @Override
+    public IntCounter countGroupedBy(String field, int minCount) {
+        IntCounter counter = new IntCounter();
+        storage.forEach((id, entity) -> counter.increment(QuerySpec.intValueOf(entity, field)));
+        return counter.atLeast(minCount);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return getAll().stream();
     }
 }
@@ -0,0 +1,442 @@
+package org.code.Repository;
+
+import org.code.Entities.HasId;
+import org.code.Exceptions.DatabaseException;
+import org.code.Helpers.IntCounter;
+import org.code.Mappers.EntityMapper;
+import org.hibernate.JDBCException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Plain JDBC repository for the tables on the hot path, described by an EntityMapper. Each call
+ * borrows a connection from the DataSource and runs as one transaction on it, so calls from
+ * different threads proceed in parallel up to the pool size. The SQL text of each statement
+ * shape is fixed, which lets the driver reuse its per-connection prepared statement cache (the
+ * PostgreSQL driver switches to a server-side prepared statement after prepareThreshold uses).
+ * Bulk writes go out through addBatch/executeBatch. Given a SessionFactory, calls made inside a
+ * TransactionTemplate unit of work run on the unit's connection instead, so they commit or roll
+ * back with it.
+ */
+public class JdbcRepository<T extends HasId> implements IRepository<T> {
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int BATCH_SIZE = 50;
+    // IN lists are padded to a power of two, so a few statement shapes cover every list size
+    private static final int MAX_IN_LIST_SIZE = 512;
+
+    private final DataSource dataSource;
+    private final EntityMapper<T> mapper;
+    private final int fetchSize;
+    private final SessionFactory unitOfWork;
+
+    private final String idColumn;
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+    private final String readSql;
+    private final String pageSql;
+
+    public JdbcRepository(DataSource dataSource, EntityMapper<T> mapper) {
+        this(dataSource, mapper, DEFAULT_FETCH_SIZE, null);
+    }
+
+    public JdbcRepository(DataSource dataSource, EntityMapper<T> mapper, int fetchSize) {
+        this(dataSource, mapper, fetchSize, null);
+    }
+
+    /** {@code unitOfWork} is the SessionFactory whose units of work these calls join; may be null. */
+    public JdbcRepository(DataSource dataSource, EntityMapper<T> mapper, int fetchSize, SessionFactory unitOfWork) {
+        this.dataSource = dataSource;
+        this.mapper = mapper;
+        this.fetchSize = fetchSize;
+        this.unitOfWork = unitOfWork;
+
+        String table = mapper.getTable();
+        Collection<String> columns = mapper.getColumns().values();
+        this.idColumn = table + "." + mapper.getIdColumn();
+        this.insertSql = "INSERT INTO " + table + " (" + mapper.getIdColumn() + ", " + String.join(", ", columns)
+                + ") VALUES (?" + ", ?".repeat(columns.size()) + ")";
+        this.updateSql = "UPDATE " + table + " SET " + String.join(" = ?, ", columns) + " = ? WHERE " + mapper.getIdColumn() + " = ?";
+        this.deleteSql = "DELETE FROM " + table + " WHERE " + mapper.getIdColumn() + " = ?";
+        this.readSql = mapper.getSelect() + " WHERE " + idColumn + " = ?";
+        this.pageSql = mapper.getSelect() + " WHERE " + idColumn + " > ? ORDER BY " + idColumn + " LIMIT ?";
+    }
+
+    @Override
+    public void create(T obj) {
+        execute("Error creating entity in the database.", statements -> {
+            PreparedStatement statement = statements.prepare(insertSql);
+            bindInsert(statement, obj);
+            return statement.executeUpdate();
+        });
+    }
+
+    /** Inserts all entities in one transaction, BATCH_SIZE rows per executeBatch. */
+    @Override
+    public void createAll(Collection<T> objs) {
+        execute("Error creating entities in the database.", statements -> {
+            PreparedStatement statement = statements.prepare(insertSql);
+            int pending = 0;
+            for (T obj : objs) {
+                bindInsert(statement, obj);
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public T read(int id) {
+        List<T> entities = query("Error reading entity in the database.", readSql, List.of(id));
+        return entities.isEmpty() ? null : entities.get(0);
+    }
+
+    @Override
+    public List<T> readAll(Collection<Integer> ids) {
+        List<T> entities = new ArrayList<>();
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int from = 0; from < distinct.size(); from += MAX_IN_LIST_SIZE) {
+            List<Integer> chunk = distinct.subList(from, Math.min(from + MAX_IN_LIST_SIZE, distinct.size()));
+            entities.addAll(query("Error reading entities from the database.",
+                    mapper.getSelect() + " WHERE " + idColumn + " IN " + placeholders(paddedSize(chunk.size())), padded(chunk)));
+        }
+        return entities;
+    }
+
+    /** Like the other repositories, an entity that is not stored is left alone. */
+    @Override
+    public void update(T obj) {
+        execute("Error updating entity in the database.", statements -> {
+            PreparedStatement statement = statements.prepare(updateSql);
+            bindUpdate(statement, obj);
+            return statement.executeUpdate();
+        });
+    }
+
+    /** Updates all entities in one transaction, BATCH_SIZE rows per executeBatch; rows that do not exist are skipped. */
+    @Override
+    public void updateAll(Collection<T> objs) {
+        execute("Error updating entities in the database.", statements -> {
+            PreparedStatement statement = statements.prepare(updateSql);
+            int pending = 0;
+            for (T obj : objs) {
+                bindUpdate(statement, obj);
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(int id) {
+        execute("Error deleting entity in the database.", statements -> {
+            PreparedStatement statement = statements.prepare(deleteSql);
+            statement.setInt(1, id);
+            return statement.executeUpdate();
+        });
+    }
+
+    @Override
+    public List<T> getAll() {
+        return query("Error reading all the entities in the database.", mapper.getSelect(), List.of());
+    }
+
+    /** Fetch hints are ignored; the mapper's select already joins what it loads. */
+    @Override
+    public List<T> findBy(QuerySpec spec) {
+        return findBy(spec.getConditions());
+    }
+
+    @Override
+    public List<T> page(int afterId, int limit) {
+        return query("Error reading a page of entities from the database.", pageSql, List.of(afterId, limit));
+    }
+
+    @Override
+    public IntCounter countGroupedBy(String field, int minCount) {
+        String column = columnFor(field);
+        String sql = "SELECT " + column + ", COUNT(*) FROM " + mapper.getTable()
+                + " GROUP BY " + column + " HAVING COUNT(*) >= ?";
+        return execute("Error counting entities in the database.", statements -> {
+            PreparedStatement statement = statements.prepare(sql);
+            statement.setInt(1, minCount);
+            IntCounter counts = new IntCounter();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    counts.add(rs.getInt(1), rs.getInt(2));
+                }
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    public int maxId() {
+        String sql = "SELECT MAX(" + mapper.getIdColumn() + ") FROM " + mapper.getTable();
+        return execute("Error reading the highest id from the database.", statements -> {
+            try (ResultSet rs = statements.prepare(sql).executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+
+    // Uses a connection of its own, since the stream outlives the call; without auto-commit the
+    // driver honours the fetch size instead of reading the whole table up front
+    @Override
+    public Stream<T> stream() {
+        Connection streamConnection = null;
+        try {
+            streamConnection = dataSource.getConnection();
+            streamConnection.setAutoCommit(false);
+            PreparedStatement statement = streamConnection.prepareStatement(mapper.getSelect());
+            statement.setFetchSize(fetchSize);
+            ResultSet rs = statement.executeQuery();
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.mapRow(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new DatabaseException("Error streaming entities from the database.", e);
+                    }
+                }
+            };
+            Connection owned = streamConnection;
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    rs.close();
+                    statement.close();
+                    owned.rollback();
+                } catch (SQLException e) {
+                    throw new DatabaseException("Error closing entity stream.", e);
+                } finally {
+                    closeQuietly(owned);
+                }
+            });
+        } catch (SQLException e) {
+            closeQuietly(streamConnection);
+            throw new DatabaseException("Error streaming entities from the database.", e);
+        }
+    }
+
+    private void bindInsert(PreparedStatement statement, T obj) throws SQLException {
+        statement.setInt(1, mapper.getId(obj));
+        mapper.bindValues(statement, 2, obj);
+    }
+
+    private void bindUpdate(PreparedStatement statement, T obj) throws SQLException {
+        int next = mapper.bindValues(statement, 1, obj);
+        statement.setInt(next, mapper.getId(obj));
+    }
+
+    private List<T> findBy(List<QuerySpec.Condition> conditions) {
+        // A long IN list is split like readAll ids; a row matches one value, so the chunks return disjoint rows
+        for (int i = 0; i < conditions.size(); i++) {
+            QuerySpec.Condition condition = conditions.get(i);
+            if (condition.getOperator() != QuerySpec.Operator.IN) {
+                continue;
+            }
+            List<Object> values = new ArrayList<>(new LinkedHashSet<>((Collection<?>) condition.getValue()));
+            if (values.size() > MAX_IN_LIST_SIZE) {
+                List<T> entities = new ArrayList<>();
+                for (int from = 0; from < values.size(); from += MAX_IN_LIST_SIZE) {
+                    List<QuerySpec.Condition> chunked = new ArrayList<>(conditions);
+                    chunked.set(i, new QuerySpec.Condition(condition.getField(), QuerySpec.Operator.IN,
+                            values.subList(from, Math.min(from + MAX_IN_LIST_SIZE, values.size()))));
+                    entities.addAll(findBy(chunked));
+                }
+                return entities;
+            }
+        }
+
+        StringBuilder sql = new StringBuilder(mapper.getSelect());
+        List<Object> parameters = new ArrayList<>();
+        String separator = " WHERE ";
+        for (QuerySpec.Condition condition : conditions) {
+            String column = columnFor(condition.getField());
+            sql.append(separator);
+            separator = " AND ";
+            switch (condition.getOperator()) {
+                case EQUAL -> {
+                    if (condition.getValue() == null) {
+                        sql.append(column).append(" IS NULL");
+                    } else {
+                        sql.append(column).append(" = ?");
+                        parameters.add(condition.getValue());
+                    }
+                }
+                case IN -> {
+                    List<Object> values = new ArrayList<>(new LinkedHashSet<>((Collection<?>) condition.getValue()));
+                    if (values.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                    sql.append(column).append(" IN ").append(placeholders(paddedSize(values.size())));
+                    parameters.addAll(padded(values));
+                }
+            }
+        }
+        return query("Error querying entities in the database.", sql.toString(), parameters);
+    }
+
+    private List<T> query(String error, String sql, List<?> parameters) {
+        return execute(error, statements -> {
+            PreparedStatement statement = statements.prepare(sql);
+            for (int i = 0; i < parameters.size(); i++) {
+                Object value = parameters.get(i);
+                statement.setObject(i + 1, value instanceof Date date ? new Timestamp(date.getTime()) : value);
+            }
+            List<T> entities = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    entities.add(mapper.mapRow(rs));
+                }
+            }
+            return entities;
+        });
+    }
+
+    private String columnFor(String field) {
+        String column = mapper.columnFor(field);
+        if (column == null) {
+            throw new DatabaseException("Unknown field " + field + " for table " + mapper.getTable() + ".");
+        }
+        return column;
+    }
+
+    // Runs the work in the unit of work bound to this thread, or as a transaction of its own on a pooled connection
+    private <R> R execute(String error, StatementWork<R> work) {
+        try {
+            Session bound = unitOfWork == null ? null : TransactionTemplate.currentSession(unitOfWork);
+            if (bound != null) {
+                // Pending Hibernate changes go out first so this SQL sees them
+                bound.flush();
+                return bound.doReturningWork(sessionConnection -> withStatements(sessionConnection, work));
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                return inTransaction(connection, work);
+            }
+        } catch (SQLException e) {
+            throw translate(error, e);
+        } catch (JDBCException e) {
+            throw translate(error, e.getSQLException());
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException(error, e);
+        }
+    }
+
+    private <R> R inTransaction(Connection connection, StatementWork<R> work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            R result = withStatements(connection, work);
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Statements live for one call; the driver keeps its own cache of prepared SQL per connection
+    private <R> R withStatements(Connection connection, StatementWork<R> work) throws SQLException {
+        List<PreparedStatement> opened = new ArrayList<>();
+        try {
+            return work.apply(sql -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                opened.add(statement);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            });
+        } finally {
+            opened.forEach(JdbcRepository::closeQuietly);
+        }
+    }
+
+    private static DatabaseException translate(String error, SQLException e) {
+        // SQLSTATE class 23 is an integrity constraint violation
+        if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+            return new DatabaseException("Constraint violation: " + e.getMessage(), e);
+        }
+        return new DatabaseException(error, e);
+    }
+
+    private static String placeholders(int count) {
+        return "(?" + ", ?".repeat(count - 1) + ")";
+    }
+
+    private static int paddedSize(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    // Repeats the last value up to the padded size; duplicates in an IN list do not change the result
+    private static <V> List<V> padded(List<V> values) {
+        List<V> padded = new ArrayList<>(values);
+        while (padded.size() < paddedSize(values.size())) {
+            padded.add(values.get(values.size() - 1));
+        }
+        return padded;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // nothing left to release
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementWork<R> {
+        R apply(Statements statements) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Statements {
+        PreparedStatement prepare(String sql) throws SQLException;
+    }
+}
@@ -0,0 +1,402 @@
+package org.code.Repository;
+
+import org.code.Entities.HasId;
+import org.code.Exceptions.DatabaseException;
+import org.code.Helpers.IntCounter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File repository that appends every write to a log instead of rewriting the whole file.
+ * An in-memory index maps each id to the offset of its latest record, so a point read is a
+ * single positional read. Superseded records are dropped by a background compaction once
+ * they outnumber the live ones.
+ *
+ * Record layout: [type:1][id:4][length:4][payload:length], payload being the serialized entity.
+ * Files written by FileRepository (a serialized HashMap) are converted on first open.
+ */
+public class LogFileRepository<T extends HasId> implements IRepository<T>, Closeable {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES + Integer.BYTES;
+    private static final int MIN_GARBAGE_FOR_COMPACTION = 64;
+
+    private final Path path;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> offsets = new HashMap<>();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FileChannel channel;
+    private long writePosition;
+    private int garbageRecords;
+    private boolean closed;
+
+    public LogFileRepository(String filePath) {
+        this.path = Paths.get(filePath);
+        try {
+            migrateLegacyFile();
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException e) {
+            throw new DatabaseException("Error opening log file " + filePath + ".", e);
+        }
+    }
+
+    @Override
+    public void create(T obj) {
+        lock.writeLock().lock();
+        try {
+            if (!offsets.containsKey(obj.getId())) {
+                offsets.put(obj.getId(), append(PUT, obj.getId(), serialize(obj)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public T read(int id) {
+        lock.readLock().lock();
+        try {
+            Long offset = offsets.get(id);
+            return offset == null ? null : readRecord(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> readAll(Collection<Integer> ids) {
+        lock.readLock().lock();
+        try {
+            // Read in file order so the scan stays sequential
+            long[] positions = new HashSet<>(ids).stream()
+                    .map(offsets::get)
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+            List<T> entities = new ArrayList<>(positions.length);
+            for (long position : positions) {
+                entities.add(readRecord(position));
+            }
+            return entities;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(T obj) {
+        lock.writeLock().lock();
+        try {
+            if (offsets.containsKey(obj.getId())) {
+                offsets.put(obj.getId(), append(PUT, obj.getId(), serialize(obj)));
+                garbageRecords++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        maybeCompact();
+    }
+
+    @Override
+    public void delete(int id) {
+        lock.writeLock().lock();
+        try {
+            if (offsets.remove(id) != null) {
+                append(DELETE, id, new byte[0]);
+                garbageRecords += 2;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        maybeCompact();
+    }
+
+    @Override
+    public List<T> getAll() {
+        lock.readLock().lock();
+        try {
+            // Read in file order so the scan stays sequential
+            long[] positions = offsets.values().stream().mapToLong(Long::longValue).sorted().toArray();
+            List<T> entities = new ArrayList<>(positions.length);
+            for (long position : positions) {
+                entities.add(readRecord(position));
+            }
+            return entities;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> findBy(QuerySpec spec) {
+        return getAll().stream()
+                .filter(spec::matches)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> page(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return offsets.keySet().stream()
+                    .filter(id -> id > afterId)
+                    .sorted()
+                    .limit(limit)
+                    .map(id -> readRecord(offsets.get(id)))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public IntCounter countGroupedBy(String field, int minCount) {
+        IntCounter counter = new IntCounter();
+        getAll().forEach(entity -> counter.increment(QuerySpec.intValueOf(entity, field)));
+        return counter.atLeast(minCount);
+    }
+
+    // Answered from the offset index, without reading any record
+    @Override
+    public int maxId() {
+        lock.readLock().lock();
+        try {
+            return offsets.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return getAll().stream();
+    }
+
+    /** Rewrites the log with only the latest record of every live id. Does nothing once closed. */
+    public void compact() {
+        lock.writeLock().lock();
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            // A compaction queued before close() must not touch or reopen the file
+            if (closed) {
+                return;
+            }
+            Map<Integer, Long> newOffsets = new HashMap<>();
+            try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = 0;
+                List<Map.Entry<Integer, Long>> live = new ArrayList<>(offsets.entrySet());
+                live.sort(Map.Entry.comparingByValue());
+                for (Map.Entry<Integer, Long> entry : live) {
+                    long recordSize = HEADER_SIZE + readHeader(entry.getValue()).getInt(HEADER_SIZE - Integer.BYTES);
+                    long copied = 0;
+                    while (copied < recordSize) {
+                        copied += channel.transferTo(entry.getValue() + copied, recordSize - copied, target);
+                    }
+                    newOffsets.put(entry.getKey(), position);
+                    position += recordSize;
+                }
+                target.force(true);
+            }
+
+            channel.close();
+            try {
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Reopened either way: the compacted log after a move, the untouched original if the move failed
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            offsets.clear();
+            offsets.putAll(newOffsets);
+            writePosition = channel.size();
+            garbageRecords = 0;
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException cleanupFailure) {
+                e.addSuppressed(cleanupFailure);
+            }
+            throw new DatabaseException("Error compacting log file " + path + ".", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            channel.force(true);
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void maybeCompact() {
+        boolean worthIt;
+        lock.readLock().lock();
+        try {
+            worthIt = garbageRecords >= MIN_GARBAGE_FOR_COMPACTION && garbageRecords > offsets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (worthIt && compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private long append(byte type, int id, byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.put(type).putInt(id).putInt(payload.length).put(payload).flip();
+        long offset = writePosition;
+        try {
+            long position = offset;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            writePosition = position;
+            return offset;
+        } catch (IOException e) {
+            throw new DatabaseException("Error appending to log file " + path + ".", e);
+        }
+    }
+
+    private ByteBuffer readHeader(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, offset);
+        return header.flip();
+    }
+
+    private T readRecord(long offset) {
+        try {
+            ByteBuffer header = readHeader(offset);
+            ByteBuffer payload = ByteBuffer.allocate(header.getInt(HEADER_SIZE - Integer.BYTES));
+            readFully(payload, offset + HEADER_SIZE);
+            return deserialize(payload.array());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new DatabaseException("Error reading log file " + path + ".", e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of log file " + path + ".");
+            }
+            position += read;
+        }
+    }
+
+    // Rebuilds the offset index by replaying the log, cutting off a torn record at the tail.
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        int records = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            byte type = header.get();
+            int id = header.getInt();
+            int length = header.getInt();
+            if ((type != PUT && type != DELETE) || length < 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            if (type == PUT) {
+                offsets.put(id, position);
+            } else {
+                offsets.remove(id);
+            }
+            records++;
+            position += HEADER_SIZE + length;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        writePosition = position;
+        garbageRecords = records - offsets.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void migrateLegacyFile() throws IOException {
+        if (!Files.exists(path) || Files.size(path) < 2) {
+            return;
+        }
+        byte[] magic = new byte[2];
+        try (InputStream in = Files.newInputStream(path)) {
+            if (in.read(magic) != 2 || (magic[0] & 0xFF) != 0xAC || (magic[1] & 0xFF) != 0xED) {
+                return;
+            }
+        }
+
+        Map<Integer, T> legacy;
+        try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(path))) {
+            legacy = (Map<Integer, T>) ois.readObject();
+        } catch (ClassNotFoundException | InvalidClassException e) {
+            // Written by an incompatible build; the file is left as it is rather than replaced by an empty log
+            throw new DatabaseException("Error converting legacy file " + path + ": " + e.getMessage(), e);
+        }
+
+        Path converted = path.resolveSibling(path.getFileName() + ".compact");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(converted)))) {
+            for (T entity : legacy.values()) {
+                byte[] payload = serialize(entity);
+                out.writeByte(PUT);
+                out.writeInt(entity.getId());
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+        }
+        Files.move(converted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] serialize(Object entity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(entity);
+        } catch (IOException e) {
+            throw new DatabaseException("Error serializing " + entity.getClass().getSimpleName() + ".", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserialize(byte[] payload) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (T) ois.readObject();
+        }
+    }
+}
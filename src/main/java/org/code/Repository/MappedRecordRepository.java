@@ -0,0 +1,284 @@
+package org.code.Repository;
+
+import org.code.Entities.HasId;
+import org.code.Exceptions.DatabaseException;
+import org.code.Helpers.IntCounter;
+import org.code.Mappers.RecordCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File repository for entities with a fixed binary layout. The file is memory-mapped and split
+ * into equal slots, so reads decode straight from the mapping and an update rewrites its slot in
+ * place. Changes reach the file through the OS page cache; close() forces them to disk.
+ *
+ * File layout: [magic:4][recordSize:4] followed by slots of [status:1][record:recordSize].
+ */
+public class MappedRecordRepository<T extends HasId> implements IRepository<T>, Closeable {
+    private static final int MAGIC = 0x4D524550;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 2;
+
+    private final Path path;
+    private final RecordCodec<T> codec;
+    private final int slotSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Integer> slots = new TreeMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int usedSlots;
+
+    public MappedRecordRepository(String filePath, RecordCodec<T> codec) {
+        this.path = Paths.get(filePath);
+        this.codec = codec;
+        this.slotSize = 1 + codec.recordSize();
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                map(INITIAL_SLOTS);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(Integer.BYTES, codec.recordSize());
+            } else {
+                map((int) ((channel.size() - HEADER_SIZE) / slotSize));
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != codec.recordSize()) {
+                    throw new DatabaseException("File " + filePath + " does not match the record layout.");
+                }
+                loadSlots();
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Error opening record file " + filePath + ".", e);
+        }
+    }
+
+    /**
+     * Like the two-argument constructor, but when the record file does not exist yet, the entities
+     * in {@code legacyFilePath} are imported into it first. That is a log written by
+     * LogFileRepository or a map serialized by FileRepository. The legacy file is then renamed to
+     * {@code <name>.converted}.
+     */
+    public MappedRecordRepository(String filePath, RecordCodec<T> codec, String legacyFilePath) {
+        this(convertLegacyFile(filePath, codec, legacyFilePath), codec);
+    }
+
+    @Override
+    public void create(T obj) {
+        lock.writeLock().lock();
+        try {
+            if (slots.containsKey(obj.getId())) {
+                return;
+            }
+            int slot = freeSlots.isEmpty() ? nextSlot() : freeSlots.poll();
+            writeSlot(slot, obj);
+            slots.put(obj.getId(), slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public T read(int id) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            return slot == null ? null : codec.read(buffer, offsetOf(slot) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> readAll(Collection<Integer> ids) {
+        lock.readLock().lock();
+        try {
+            return decode(new HashSet<>(ids).stream()
+                    .map(slots::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(T obj) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(obj.getId());
+            if (slot != null) {
+                writeSlot(slot, obj);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(id);
+            if (slot != null) {
+                buffer.put(offsetOf(slot), DELETED);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> getAll() {
+        lock.readLock().lock();
+        try {
+            return decode(slots.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> findBy(QuerySpec spec) {
+        return getAll().stream()
+                .filter(spec::matches)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> page(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return decode(slots.tailMap(afterId, false).values().stream()
+                    .limit(Math.max(0, limit))
+                    .collect(Collectors.toList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public IntCounter countGroupedBy(String field, int minCount) {
+        IntCounter counter = new IntCounter();
+        getAll().forEach(entity -> counter.increment(QuerySpec.intValueOf(entity, field)));
+        return counter.atLeast(minCount);
+    }
+
+    @Override
+    public int maxId() {
+        lock.readLock().lock();
+        try {
+            return slots.isEmpty() ? 0 : slots.lastKey();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return getAll().stream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<T> decode(Collection<Integer> slotNumbers) {
+        List<T> entities = new ArrayList<>(slotNumbers.size());
+        for (int slot : slotNumbers) {
+            entities.add(codec.read(buffer, offsetOf(slot) + 1));
+        }
+        return entities;
+    }
+
+    // The records are written to a side file that only becomes the record file once complete, so a
+    // conversion cut short is redone on the next open instead of leaving a partial file behind
+    private static <E extends HasId> String convertLegacyFile(String filePath, RecordCodec<E> codec, String legacyFilePath) {
+        Path target = Paths.get(filePath);
+        Path legacy = Paths.get(legacyFilePath);
+        if (Files.exists(target) || !Files.exists(legacy)) {
+            return filePath;
+        }
+        Path converting = target.resolveSibling(target.getFileName() + ".converting");
+        try {
+            Files.deleteIfExists(converting);
+            List<E> entities;
+            try (LogFileRepository<E> legacyRepo = new LogFileRepository<>(legacyFilePath)) {
+                entities = legacyRepo.getAll();
+            }
+            try (MappedRecordRepository<E> converted = new MappedRecordRepository<>(converting.toString(), codec)) {
+                entities.forEach(converted::create);
+            }
+            Files.move(converting, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(legacy, legacy.resolveSibling(legacy.getFileName() + ".converted"), StandardCopyOption.REPLACE_EXISTING);
+            return filePath;
+        } catch (IOException e) {
+            throw new DatabaseException("Error converting " + legacyFilePath + " to " + filePath + ".", e);
+        }
+    }
+
+    private void writeSlot(int slot, T obj) {
+        int offset = offsetOf(slot);
+        codec.write(obj, buffer, offset + 1);
+        buffer.put(offset, LIVE);
+    }
+
+    private int nextSlot() {
+        if (usedSlots == capacity) {
+            try {
+                map(capacity * 2);
+            } catch (IOException e) {
+                throw new DatabaseException("Error growing record file " + path + ".", e);
+            }
+        }
+        return usedSlots++;
+    }
+
+    // Maps the header plus the given number of slots, extending the file if needed.
+    private void map(int slotCount) throws IOException {
+        capacity = Math.max(slotCount, 1);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * slotSize);
+    }
+
+    private void loadSlots() {
+        for (int slot = 0; slot < capacity; slot++) {
+            byte status = buffer.get(offsetOf(slot));
+            if (status == EMPTY) {
+                break;
+            }
+            if (status == LIVE) {
+                slots.put(buffer.getInt(offsetOf(slot) + 1), slot);
+            } else {
+                freeSlots.push(slot);
+            }
+            usedSlots = slot + 1;
+        }
+    }
+
+    private int offsetOf(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+}
@@ -0,0 +1,135 @@
+package org.code.Repository;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A conjunction of field conditions that a repository can evaluate.
+ * Field names are the entity's Java field names; nested values are reached with a dotted
+ * path such as "location.city". DBRepository turns a spec into a Criteria query with bound
+ * parameters, the local repositories evaluate it against the stored objects.
+ */
+public class QuerySpec {
+    private static final Map<Class<?>, Map<String, Field>> FIELD_CACHE = new ConcurrentHashMap<>();
+
+    private final List<Condition> conditions = new ArrayList<>();
+    private final List<String> fetches = new ArrayList<>();
+
+    private QuerySpec() {
+    }
+
+    public static QuerySpec where(String field, Object value) {
+        return new QuerySpec().and(field, value);
+    }
+
+    public static QuerySpec in(String field, Collection<?> values) {
+        return new QuerySpec().andIn(field, values);
+    }
+
+    public QuerySpec and(String field, Object value) {
+        conditions.add(new Condition(field, Operator.EQUAL, value));
+        return this;
+    }
+
+    public QuerySpec andIn(String field, Collection<?> values) {
+        conditions.add(new Condition(field, Operator.IN, values));
+        return this;
+    }
+
+    /** Asks the database backend to load the given association in the same query. */
+    public QuerySpec fetch(String association) {
+        fetches.add(association);
+        return this;
+    }
+
+    public List<Condition> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    public List<String> getFetches() {
+        return Collections.unmodifiableList(fetches);
+    }
+
+    public boolean matches(Object entity) {
+        for (Condition condition : conditions) {
+            Object actual = valueOf(entity, condition.getField());
+            boolean matched = switch (condition.getOperator()) {
+                case EQUAL -> Objects.equals(actual, condition.getValue());
+                case IN -> ((Collection<?>) condition.getValue()).contains(actual);
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static Object valueOf(Object entity, String path) {
+        Object current = entity;
+        for (String name : path.split("\\.")) {
+            if (current == null) {
+                return null;
+            }
+            try {
+                current = fieldOf(current.getClass(), name).get(current);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot read field " + name + " of " + current.getClass().getSimpleName(), e);
+            }
+        }
+        return current;
+    }
+
+    public static int intValueOf(Object entity, String field) {
+        try {
+            return fieldOf(entity.getClass(), field).getInt(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot read field " + field + " of " + entity.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static Field fieldOf(Class<?> type, String name) {
+        return FIELD_CACHE.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> {
+                    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                        try {
+                            Field field = c.getDeclaredField(n);
+                            field.setAccessible(true);
+                            return field;
+                        } catch (NoSuchFieldException ignored) {
+                            // keep walking up the hierarchy
+                        }
+                    }
+                    throw new IllegalArgumentException("Unknown field " + n + " on " + type.getSimpleName());
+                });
+    }
+
+    public enum Operator {
+        EQUAL,
+        IN
+    }
+
+    public static class Condition {
+        private final String field;
+        private final Operator operator;
+        private final Object value;
+
+        public Condition(String field, Operator operator, Object value) {
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+}
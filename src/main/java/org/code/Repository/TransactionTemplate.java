@@ -0,0 +1,76 @@
+package org.code.Repository;
+
+import org.code.Exceptions.DatabaseException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in one Session and one transaction. While the work runs, the Session is
+ * bound to the current thread, and every DBRepository on the same SessionFactory uses it instead
+ * of opening its own, so the work commits or rolls back as a whole. Nested calls join the
+ * outermost unit of work. Without a SessionFactory (in-memory and file storage) the work just runs.
+ */
+public class TransactionTemplate {
+    private static final ThreadLocal<Map<SessionFactory, Session>> BOUND_SESSIONS = ThreadLocal.withInitial(HashMap::new);
+
+    private final SessionFactory sessionFactory;
+
+    public TransactionTemplate(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /** The Session of the unit of work running on this thread, or null outside one. */
+    public static Session currentSession(SessionFactory sessionFactory) {
+        return BOUND_SESSIONS.get().get(sessionFactory);
+    }
+
+    public <R> R execute(Supplier<R> work) {
+        if (sessionFactory == null || currentSession(sessionFactory) != null) {
+            return work.get();
+        }
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        BOUND_SESSIONS.get().put(sessionFactory, session);
+        try {
+            R result;
+            try {
+                result = work.get();
+            } catch (RuntimeException e) {
+                rollback(transaction, e);
+                throw e;
+            }
+            try {
+                transaction.commit();
+            } catch (RuntimeException e) {
+                rollback(transaction, e);
+                throw new DatabaseException("Error committing transaction.", e);
+            }
+            return result;
+        } finally {
+            BOUND_SESSIONS.get().remove(sessionFactory);
+            session.close();
+        }
+    }
+
+    public void execute(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static void rollback(Transaction transaction, RuntimeException cause) {
+        try {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
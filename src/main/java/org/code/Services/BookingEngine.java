@@ -0,0 +1,52 @@
+package org.code.Services;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking commits per property with a fixed set of striped locks.
+ * Work on the same property is linearized, while properties that map to different
+ * stripes are booked in parallel without a global lock.
+ */
+public class BookingEngine {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+
+    public BookingEngine() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public BookingEngine(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive.");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <R> R withPropertyLock(int propertyId, Supplier<R> action) {
+        ReentrantLock lock = stripeFor(propertyId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withPropertyLock(int propertyId, Runnable action) {
+        withPropertyLock(propertyId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private ReentrantLock stripeFor(int propertyId) {
+        int hash = propertyId * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -2,11 +2,31 @@ package org.code.Services;
 
 import org.code.Entities.*;
 import org.code.Exceptions.BusinessLogicException;
+import org.code.Exceptions.DatabaseException;
 import org.code.Exceptions.EntityNotFoundException;
+import org.code.Helpers.CacheStatistics;
+import org.code.Helpers.IntCounter;
+import org.code.Helpers.Lazy;
+import org.code.Helpers.PoolStatistics;
+import org.code.Ids.BlockIdGenerator;
+import org.code.Ids.HighWaterMarkStore;
+import org.code.Ids.IdGenerator;
+import org.code.Ids.InMemoryHighWaterMarkStore;
+import org.code.Indexes.AmenityIndex;
+import org.code.Indexes.BookingCalendar;
+import org.code.Indexes.HostPropertyIndex;
+import org.code.Indexes.LocationIndex;
+import org.code.Indexes.NaturalKeyIndex;
+import org.code.Indexes.PriceIndex;
+import org.code.Indexes.ReviewAggregateIndex;
+import org.code.Repository.DBPropertyListingRepository;
+import org.code.Repository.DBRepository;
+import org.code.Repository.DerivedPropertyListingRepository;
+import org.code.Repository.IPropertyListingRepository;
 import org.code.Repository.IRepository;
-import org.hibernate.Session;
+import org.code.Repository.QuerySpec;
+import org.code.Repository.TransactionTemplate;
 import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,6 +42,20 @@ public class PropertyBookingService {
     private final IRepository<CancellationPolicy> cancellationPolicyRepo;
     private final IRepository<Payment> paymentRepo;
     private final SessionFactory sessionFactory;
+    private final TransactionTemplate transactions;
+    private final IdGenerator idGenerator;
+    private final IPropertyListingRepository propertyListings;
+    // Property reads handed to callers, which expect the amenity ids to be loaded
+    private final IRepository<Property> propertiesWithAmenities;
+    private final BookingEngine bookingEngine = new BookingEngine();
+    private final Lazy<BookingCalendar> bookingCalendar = new Lazy<>(this::loadBookingCalendar);
+    private final Lazy<HostPropertyIndex> hostPropertyIndex = new Lazy<>(this::loadHostPropertyIndex);
+    private final Lazy<ReviewAggregateIndex> reviewAggregates = new Lazy<>(this::loadReviewAggregates);
+    private final Lazy<AmenityIndex> amenityIndex = new Lazy<>(this::loadAmenityIndex);
+    private final Lazy<PriceIndex> priceIndex = new Lazy<>(this::loadPriceIndex);
+    private final Lazy<LocationIndex> locationIndex = new Lazy<>(this::loadLocationIndex);
+    private final Lazy<NaturalKeyIndex<Location>> locationsByKey = new Lazy<>(this::loadLocationsByKey);
+    private final Lazy<NaturalKeyIndex<CancellationPolicy>> policiesByDescription = new Lazy<>(this::loadPoliciesByDescription);
 
     public PropertyBookingService(
             IRepository<Host> hostRepo,
@@ -34,6 +68,22 @@ public class PropertyBookingService {
             IRepository<CancellationPolicy> cancellationPolicyRepo,
             IRepository<Payment> paymentRepo,
             SessionFactory sessionFactory) {
+        this(hostRepo, guestRepo, propertyRepo, bookingRepo, reviewRepo, amenityRepo, locationRepo,
+                cancellationPolicyRepo, paymentRepo, sessionFactory, new InMemoryHighWaterMarkStore());
+    }
+
+    public PropertyBookingService(
+            IRepository<Host> hostRepo,
+            IRepository<Guest> guestRepo,
+            IRepository<Property> propertyRepo,
+            IRepository<Booking> bookingRepo,
+            IRepository<Review> reviewRepo,
+            IRepository<Amenity> amenityRepo,
+            IRepository<Location> locationRepo,
+            IRepository<CancellationPolicy> cancellationPolicyRepo,
+            IRepository<Payment> paymentRepo,
+            SessionFactory sessionFactory,
+            HighWaterMarkStore idMarks) {
         this.hostRepo = hostRepo;
         this.guestRepo = guestRepo;
         this.propertyRepo = propertyRepo;
@@ -44,6 +94,13 @@ public class PropertyBookingService {
         this.cancellationPolicyRepo = cancellationPolicyRepo;
         this.paymentRepo = paymentRepo;
         this.sessionFactory = sessionFactory;
+        this.transactions = new TransactionTemplate(sessionFactory);
+        this.idGenerator = new BlockIdGenerator(idMarks, this::maxStoredId, BlockIdGenerator.DEFAULT_BLOCK_SIZE);
+        this.propertiesWithAmenities = propertyRepo.withFetchGraph(Property.WITH_AMENITIES);
+        // Properties stored through Hibernate can be listed with a projection query instead of loading entities
+        this.propertyListings = propertyRepo instanceof DBRepository<?> db
+                ? new DBPropertyListingRepository(db.getSessionFactory())
+                : new DerivedPropertyListingRepository(propertyRepo);
     }
 
     public void addHost(Host host) {
@@ -84,6 +141,22 @@ public class PropertyBookingService {
         }
     }
 
+    public List<Host> getHostsPage(int afterId, int limit) {
+        try {
+            return hostRepo.page(afterId, limit);
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving hosts: " + e.getMessage(), e);
+        }
+    }
+
+    public List<Guest> getGuestsPage(int afterId, int limit) {
+        try {
+            return guestRepo.page(afterId, limit);
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving guests: " + e.getMessage(), e);
+        }
+    }
+
     public Host getHostById(int id) {
         try {
             Host host = hostRepo.read(id);
@@ -110,28 +183,17 @@ public class PropertyBookingService {
 
     public List<Booking> getBookingsForGuest(int guestId) {
         try {
-            return bookingRepo.getAll().stream()
-                    .filter(booking -> booking.getGuestID() == guestId)
-                    .collect(Collectors.toList());
+            return bookingRepo.findBy("guestID", guestId);
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving bookings for guest: " + e.getMessage(), e);
         }
     }
 
     public List<Property> getPropertiesForHost(int hostId) {
-        Session session = sessionFactory.openSession();
-        Transaction transaction = session.beginTransaction();
         try {
-            List<Property> properties = propertyRepo.getAll().stream()
-                    .filter(property -> property.getHostID() == hostId)
-                    .collect(Collectors.toList());
-            transaction.commit();
-            return properties;
+            return propertiesWithAmenities.findBy("hostID", hostId);
         } catch (Exception e) {
-            transaction.rollback();
             throw new BusinessLogicException("Error fetching properties for host: " + e.getMessage(), e);
-        } finally {
-            session.close();
         }
     }
 
@@ -140,30 +202,22 @@ public class PropertyBookingService {
             if (property == null) {
                 throw new BusinessLogicException("Property cannot be null.");
             }
-            // Ensure the cancellation policy exists
+            // Reuse the stored cancellation policy and location, creating them on first use
             CancellationPolicy policy = property.getCancellationPolicy();
             if (policy != null) {
-                CancellationPolicy existingPolicy = getCancellationPolicyByDescription(policy.getDescription());
-                if (existingPolicy == null) {
-                    cancellationPolicyRepo.create(policy);
-                } else {
-                    property.setCancellationPolicy(existingPolicy);
-                }
+                property.setCancellationPolicy(policiesByDescription.get().getOrCreate(policy, this::saveCancellationPolicy));
             }
-
-            // Ensure the location exists
             Location location = property.getLocation();
             if (location != null) {
-                Location existingLocation = getLocationByCityAndCountry(location.getCity(), location.getCountry());
-                if (existingLocation == null) {
-                    locationRepo.create(location);
-                } else {
-                    property.setLocation(existingLocation);
-                }
+                property.setLocation(locationsByKey.get().getOrCreate(location, this::saveLocation));
             }
 
             // Create the property
             propertyRepo.create(property);
+            hostPropertyIndex.get().add(property);
+            amenityIndex.get().add(property);
+            priceIndex.get().put(property);
+            locationIndex.get().put(property);
         } catch (Exception e) {
             throw new BusinessLogicException("Error adding property: " + e.getMessage(), e);
         }
@@ -171,10 +225,7 @@ public class PropertyBookingService {
 
     public Location getLocationByCityAndCountry(String city, String country) {
         try {
-            return locationRepo.getAll().stream()
-                    .filter(loc -> loc.getCity().equals(city) && loc.getCountry().equals(country))
-                    .findFirst()
-                    .orElse(null);
+            return locationsByKey.get().get(NaturalKeyIndex.normalize(city, country));
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving location: " + e.getMessage(), e);
         }
@@ -182,7 +233,39 @@ public class PropertyBookingService {
 
     public List<Property> getAllProperties() {
         try {
-            return propertyRepo.getAll();
+            return propertiesWithAmenities.getAll();
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving properties: " + e.getMessage(), e);
+        }
+    }
+
+    public List<PropertyListing> getPropertyListingsPage(int afterId, int limit) {
+        try {
+            return propertyListings.page(afterId, limit);
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving property listings: " + e.getMessage(), e);
+        }
+    }
+
+    public List<PropertyListing> getPropertyListingsForHost(int hostId) {
+        try {
+            return propertyListings.readAll(hostPropertyIndex.get().propertiesOf(hostId));
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving property listings for host: " + e.getMessage(), e);
+        }
+    }
+
+    public List<PropertyListing> getPropertyListingsByLocation(Location location) {
+        try {
+            return propertyListings.readAll(locationIndex.get().propertiesIn(location));
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving property listings by location: " + e.getMessage(), e);
+        }
+    }
+
+    public List<Property> getPropertiesPage(int afterId, int limit) {
+        try {
+            return propertiesWithAmenities.page(afterId, limit);
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving properties: " + e.getMessage(), e);
         }
@@ -190,7 +273,7 @@ public class PropertyBookingService {
 
     public Property getPropertyById(int id) {
         try {
-            Property property = propertyRepo.read(id);
+            Property property = propertiesWithAmenities.read(id);
             if (property == null) {
                 throw new EntityNotFoundException("Property with ID " + id + " not found.");
             }
@@ -202,9 +285,9 @@ public class PropertyBookingService {
 
     public List<Property> getPropertiesByLocation(Location location) {
         try {
-            return propertyRepo.getAll().stream()
-                    .filter(p -> p.getLocation().equals(location))
-                    .collect(Collectors.toList());
+            List<Property> properties = new ArrayList<>(propertiesWithAmenities.readAll(locationIndex.get().propertiesIn(location)));
+            properties.sort(Comparator.comparingInt(Property::getId));
+            return properties;
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving properties by location: " + e.getMessage(), e);
         }
@@ -215,9 +298,15 @@ public class PropertyBookingService {
             if (property == null || amenity == null) {
                 throw new BusinessLogicException("Property or Amenity cannot be null.");
             }
-            amenityRepo.create(amenity);
-            property.getAmenityIDs().add(amenity.getAmenityID());
-            propertyRepo.update(property);
+            transactions.execute(() -> {
+                // New amenities arrive with id 0; ones already saved through addAmenity are only linked
+                if (amenity.getId() == 0) {
+                    createAmenity(amenity);
+                }
+                property.getAmenityIDs().add(amenity.getAmenityID());
+                propertyRepo.update(property);
+            });
+            amenityIndex.get().addAmenity(property.getId(), amenity.getAmenityID());
         } catch (Exception e) {
             throw new BusinessLogicException("Error adding amenity to property: " + e.getMessage(), e);
         }
@@ -225,10 +314,7 @@ public class PropertyBookingService {
 
     public CancellationPolicy getCancellationPolicyByDescription(String description) {
         try {
-            return cancellationPolicyRepo.getAll().stream()
-                    .filter(policy -> policy.getDescription().equals(description))
-                    .findFirst()
-                    .orElse(null);
+            return policiesByDescription.get().get(NaturalKeyIndex.normalize(description));
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving cancellation policy: " + e.getMessage(), e);
         }
@@ -236,17 +322,59 @@ public class PropertyBookingService {
 
     public List<Amenity> getAmenitiesForProperty(Property property) {
         try {
+            Map<Integer, Amenity> amenities = getAmenitiesByIds(property.getAmenityIDs());
             return property.getAmenityIDs().stream()
-                    .map(amenityRepo::read)
+                    .map(amenities::get)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving amenities for property: " + e.getMessage(), e);
         }
     }
 
+    /** Properties offering every one of the given amenities. */
+    public List<Property> findPropertiesWithAmenities(Collection<Integer> amenityIds) {
+        try {
+            if (amenityIds == null || amenityIds.isEmpty()) {
+                throw new BusinessLogicException("At least one amenity is required.");
+            }
+            List<Integer> propertyIds = new ArrayList<>();
+            amenityIndex.get().propertiesWithAll(amenityIds).forEach((int id) -> propertyIds.add(id));
+            List<Property> properties = new ArrayList<>(propertiesWithAmenities.readAll(propertyIds));
+            properties.sort(Comparator.comparingInt(Property::getId));
+            return properties;
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error searching properties by amenities: " + e.getMessage(), e);
+        }
+    }
+
+    /** Resolves many amenity ids with one repository read, e.g. for a page of listings. */
+    public Map<Integer, Amenity> getAmenitiesByIds(Collection<Integer> ids) {
+        try {
+            return amenityRepo.readAll(ids).stream()
+                    .collect(Collectors.toMap(Amenity::getId, amenity -> amenity));
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving amenities: " + e.getMessage(), e);
+        }
+    }
+
+    public void updateProperty(Property property) {
+        try {
+            if (property == null) {
+                throw new BusinessLogicException("Property cannot be null.");
+            }
+            propertyRepo.update(property);
+            hostPropertyIndex.get().put(property);
+            amenityIndex.get().put(property);
+            priceIndex.get().put(property);
+            locationIndex.get().put(property);
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error updating property: " + e.getMessage(), e);
+        }
+    }
+
     public Property getPropertyForBooking(Booking booking) {
         try {
-            return propertyRepo.read(booking.getPropertyID());
+            return propertiesWithAmenities.read(booking.getPropertyID());
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving property for booking: " + e.getMessage(), e);
         }
@@ -254,9 +382,7 @@ public class PropertyBookingService {
 
     public List<Property> filterPropertiesByLocation(Location location) {
         try {
-            return propertyRepo.getAll().stream()
-                    .filter(property -> property.getLocation().equals(location))
-                    .collect(Collectors.toList());
+            return getPropertiesByLocation(location);
         } catch (Exception e) {
             throw new BusinessLogicException("Error filtering properties by location: " + e.getMessage(), e);
         }
@@ -264,11 +390,22 @@ public class PropertyBookingService {
 
     public void deleteProperty(int propertyId) {
         try {
-            Property property = propertyRepo.read(propertyId);
-            if (property == null) {
-                throw new EntityNotFoundException("Property with ID " + propertyId + " not found.");
-            }
-            propertyRepo.delete(propertyId);
+            bookingEngine.withPropertyLock(propertyId, () -> {
+                Property property = transactions.execute(() -> {
+                    Property existing = propertyRepo.read(propertyId);
+                    if (existing == null) {
+                        throw new EntityNotFoundException("Property with ID " + propertyId + " not found.");
+                    }
+                    propertyRepo.delete(propertyId);
+                    return existing;
+                });
+                bookingCalendar.get().removeProperty(propertyId);
+                hostPropertyIndex.get().remove(property);
+                reviewAggregates.get().removeProperty(propertyId);
+                amenityIndex.get().removeProperty(propertyId);
+                priceIndex.get().remove(propertyId);
+                locationIndex.get().remove(propertyId);
+            });
         } catch (Exception e) {
             throw new BusinessLogicException("Error deleting property: " + e.getMessage(), e);
         }
@@ -276,31 +413,50 @@ public class PropertyBookingService {
 
     public boolean bookProperty(Guest guest, Property property, Date checkInDate, Date checkOutDate) {
         try {
-            if (!checkAvailability(property.getId(), checkInDate, checkOutDate)) {
-                throw new BusinessLogicException("Property is not available for the selected dates.");
-            }
-            double totalPrice = property.getPricePerNight() * getDaysBetween(checkInDate, checkOutDate);
-
-            int paymentId = generateUniqueId();
-            Payment payment = new Payment(paymentId, totalPrice, new Date());
-            paymentRepo.create(payment);
-
-            int bookingId = generateUniqueId();
-            Booking booking = new Booking(bookingId, checkOutDate, checkInDate, totalPrice, guest.getId(), property.getId(), payment);
-
-            bookingRepo.create(booking);
+            return bookingEngine.withPropertyLock(property.getId(), () -> {
+                if (!checkAvailability(property.getId(), checkInDate, checkOutDate)) {
+                    throw new BusinessLogicException("Property is not available for the selected dates.");
+                }
+                double totalPrice = property.getPricePerNight() * getDaysBetween(checkInDate, checkOutDate);
+
+                // Payment and booking commit together; the calendar only sees committed bookings
+                Booking booking = transactions.execute(() -> {
+                    int paymentId = idGenerator.nextId(Payment.class);
+                    Payment payment = new Payment(paymentId, totalPrice, new Date());
+                    paymentRepo.create(payment);
+
+                    int bookingId = idGenerator.nextId(Booking.class);
+                    Booking created = new Booking(bookingId, checkOutDate, checkInDate, totalPrice, guest.getId(), property.getId(), payment);
+                    bookingRepo.create(created);
+                    return created;
+                });
+                bookingCalendar.get().add(booking);
 
-            return true;
+                return true;
+            });
         } catch (Exception e) {
             throw new BusinessLogicException("Error booking property: " + e.getMessage(), e);
         }
     }
 
+    public void cancelBooking(int bookingId) {
+        try {
+            Booking booking = bookingRepo.read(bookingId);
+            if (booking == null) {
+                throw new EntityNotFoundException("Booking with ID " + bookingId + " not found.");
+            }
+            bookingEngine.withPropertyLock(booking.getPropertyID(), () -> {
+                bookingRepo.delete(bookingId);
+                bookingCalendar.get().remove(bookingId);
+            });
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error cancelling booking: " + e.getMessage(), e);
+        }
+    }
+
     public List<Booking> getBookingsForProperty(int propertyId) {
         try {
-            return bookingRepo.getAll().stream()
-                    .filter(booking -> booking.getPropertyID() == propertyId)
-                    .collect(Collectors.toList());
+            return bookingRepo.findBy("propertyID", propertyId);
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving bookings for property: " + e.getMessage(), e);
         }
@@ -320,9 +476,17 @@ public class PropertyBookingService {
 
     public List<Guest> filterGuestsByBookingCount(int minBookings) {
         try {
-            return guestRepo.getAll().stream()
-                    .filter(guest -> getBookingsForGuest(guest.getId()).size() >= minBookings)
-                    .collect(Collectors.toList());
+            if (minBookings <= 0) {
+                return guestRepo.getAll();
+            }
+            IntCounter bookingCounts = bookingRepo.countGroupedBy("guestID", minBookings);
+            if (bookingCounts.isEmpty()) {
+                return new ArrayList<>();
+            }
+            // Keyed reads: chunked IN lists in the database, map lookups in memory
+            List<Guest> guests = new ArrayList<>(guestRepo.readAll(Arrays.stream(bookingCounts.keys()).boxed().collect(Collectors.toList())));
+            guests.sort(Comparator.comparingInt(Guest::getId));
+            return guests;
         } catch (Exception e) {
             throw new BusinessLogicException("Error filtering guests by booking count: " + e.getMessage(), e);
         }
@@ -350,9 +514,12 @@ public class PropertyBookingService {
 
     public void addReview(Guest guest, Property property, double rating, String comment) {
         try {
-            int reviewId = generateUniqueId();
+            // Built before the review is stored, so a first-use load cannot count it as well
+            ReviewAggregateIndex aggregates = reviewAggregates.get();
+            int reviewId = idGenerator.nextId(Review.class);
             Review review = new Review(reviewId, guest.getId(), property.getId(), rating, comment, new Date());
             reviewRepo.create(review);
+            aggregates.add(review);
         } catch (Exception e) {
             throw new BusinessLogicException("Error adding review: " + e.getMessage(), e);
         }
@@ -360,9 +527,7 @@ public class PropertyBookingService {
 
     public List<Review> getReviewsForProperty(int propertyId, boolean sortByRating, boolean descending) {
         try {
-            List<Review> reviews = reviewRepo.getAll().stream()
-                    .filter(review -> review.getPropertyID() == propertyId)
-                    .collect(Collectors.toList());
+            List<Review> reviews = new ArrayList<>(reviewRepo.findBy("propertyID", propertyId));
 
             if (sortByRating) {
                 reviews.sort((r1, r2) -> {
@@ -381,8 +546,139 @@ public class PropertyBookingService {
         return (end.getTime() - start.getTime()) / (1000 * 60 * 60 * 24);
     }
 
-    private int generateUniqueId() {
-        return (int) (Math.random() * 10000);
+    // Read access for PropertySearchService, which plans searches over the same indexes.
+    BookingCalendar bookingCalendar() {
+        return bookingCalendar.get();
+    }
+
+    AmenityIndex amenityIndex() {
+        return amenityIndex.get();
+    }
+
+    PriceIndex priceIndex() {
+        return priceIndex.get();
+    }
+
+    LocationIndex locationIndex() {
+        return locationIndex.get();
+    }
+
+    IRepository<Property> propertiesWithAmenities() {
+        return propertiesWithAmenities;
+    }
+
+    ReviewAggregateIndex reviewAggregates() {
+        return reviewAggregates.get();
+    }
+
+    // Indexes are built from their table on first use and then kept current by the service's own writes.
+    private BookingCalendar loadBookingCalendar() {
+        BookingCalendar calendar = new BookingCalendar();
+        bookingRepo.getAll().forEach(calendar::add);
+        return calendar;
+    }
+
+    private HostPropertyIndex loadHostPropertyIndex() {
+        HostPropertyIndex index = new HostPropertyIndex();
+        propertyRepo.getAll().forEach(index::add);
+        return index;
+    }
+
+    private ReviewAggregateIndex loadReviewAggregates() {
+        ReviewAggregateIndex index = new ReviewAggregateIndex();
+        reviewRepo.getAll().forEach(index::add);
+        return index;
+    }
+
+    private AmenityIndex loadAmenityIndex() {
+        AmenityIndex index = new AmenityIndex();
+        propertiesWithAmenities.getAll().forEach(index::add);
+        return index;
+    }
+
+    private PriceIndex loadPriceIndex() {
+        PriceIndex index = new PriceIndex();
+        propertyRepo.getAll().forEach(index::put);
+        return index;
+    }
+
+    private LocationIndex loadLocationIndex() {
+        LocationIndex index = new LocationIndex();
+        propertyRepo.getAll().forEach(index::put);
+        return index;
+    }
+
+    private NaturalKeyIndex<Location> loadLocationsByKey() {
+        NaturalKeyIndex<Location> index = new NaturalKeyIndex<>(location -> NaturalKeyIndex.normalize(location.getCity(), location.getCountry()));
+        locationRepo.getAll().forEach(index::add);
+        return index;
+    }
+
+    private NaturalKeyIndex<CancellationPolicy> loadPoliciesByDescription() {
+        NaturalKeyIndex<CancellationPolicy> index = new NaturalKeyIndex<>(policy -> NaturalKeyIndex.normalize(policy.getDescription()));
+        cancellationPolicyRepo.getAll().forEach(index::add);
+        return index;
+    }
+
+    // Another instance may have stored the same key first; the unique constraint then rejects ours and we reuse theirs.
+    private Location saveLocation(Location location) {
+        try {
+            locationRepo.create(location);
+            return location;
+        } catch (DatabaseException e) {
+            return locationRepo.findBy(QuerySpec.where("city", location.getCity()).and("country", location.getCountry())).stream()
+                    .findFirst()
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private CancellationPolicy saveCancellationPolicy(CancellationPolicy policy) {
+        try {
+            cancellationPolicyRepo.create(policy);
+            return policy;
+        } catch (DatabaseException e) {
+            return cancellationPolicyRepo.findBy("description", policy.getDescription()).stream()
+                    .findFirst()
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private void createAmenity(Amenity amenity) {
+        if (amenity.getId() == 0) {
+            amenity.setId(idGenerator.nextId(Amenity.class));
+        }
+        amenityRepo.create(amenity);
+    }
+
+    // Seeds the id generator so ids written before it existed are never handed out again.
+    private int maxStoredId(Class<?> entityType) {
+        IRepository<? extends HasId> repo;
+        if (entityType == Booking.class) {
+            repo = bookingRepo;
+        } else if (entityType == Payment.class) {
+            repo = paymentRepo;
+        } else if (entityType == Review.class) {
+            repo = reviewRepo;
+        } else if (entityType == Amenity.class) {
+            repo = amenityRepo;
+        } else {
+            return 0;
+        }
+        return repo.maxId();
+    }
+
+    public List<String> getCacheStatistics() {
+        if (sessionFactory == null) {
+            return List.of("Cache statistics are only available with database storage.");
+        }
+        return CacheStatistics.summary(sessionFactory);
+    }
+
+    public List<String> getPoolStatistics() {
+        if (sessionFactory == null) {
+            return List.of("Pool statistics are only available with database storage.");
+        }
+        return PoolStatistics.summary(sessionFactory);
     }
 
     public void processPaymentForBooking(Booking booking) {
@@ -399,38 +695,40 @@ public class PropertyBookingService {
 
     public List<Payment> getPaymentsForHost(int hostId) {
         try {
-            return bookingRepo.getAll().stream()
-                    .filter(booking -> getPropertyById(booking.getPropertyID()).getHostID() == hostId)
-                    .map(Booking::getPayment)
-                    .collect(Collectors.toList());
+            return findHostPayments(QuerySpec.in("propertyID", hostPropertyIndex.get().propertiesOf(hostId)));
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving payments for host: " + e.getMessage(), e);
         }
     }
 
+    public List<Payment> getUnpaidPaymentsForHost(int hostId) {
+        try {
+            return findHostPayments(QuerySpec.in("propertyID", hostPropertyIndex.get().propertiesOf(hostId))
+                    .and("payment.processed", false));
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving unpaid payments for host: " + e.getMessage(), e);
+        }
+    }
+
     public List<Payment> getTransactionHistoryForHost(int hostId) {
         try {
-            return bookingRepo.getAll().stream()
-                    .filter(booking -> getPropertyById(booking.getPropertyID()).getHostID() == hostId)
-                    .map(Booking::getPayment)
-                    .collect(Collectors.toList());
+            return findHostPayments(QuerySpec.in("propertyID", hostPropertyIndex.get().propertiesOf(hostId)));
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving transaction history for host: " + e.getMessage(), e);
         }
     }
 
+    // One query over the host's bookings with their payments joined in, instead of a property lookup per booking.
+    private List<Payment> findHostPayments(QuerySpec spec) {
+        return bookingRepo.findBy(spec.fetch("payment")).stream()
+                .map(Booking::getPayment)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     public boolean checkAvailability(int propertyId, Date checkInDate, Date checkOutDate) {
         try {
-            List<Booking> bookings = bookingRepo.getAll().stream()
-                    .filter(booking -> booking.getPropertyID() == propertyId)
-                    .collect(Collectors.toList());
-
-            for (Booking booking : bookings) {
-                if (booking.getCheckInDate().before(checkOutDate) && booking.getCheckOutDate().after(checkInDate)) {
-                    return false;
-                }
-            }
-            return true;
+            return bookingCalendar.get().isAvailable(propertyId, checkInDate, checkOutDate);
         } catch (Exception e) {
             throw new BusinessLogicException("Error checking property availability: " + e.getMessage(), e);
         }
@@ -438,44 +736,91 @@ public class PropertyBookingService {
 
     public List<Property> getAvailablePropertiesByDateSortedByPrice(Date date) {
         try {
-            return propertyRepo.getAll().stream()
-                    .filter(property -> checkAvailability(property.getId(), date, date))
-                    .sorted(Comparator.comparingDouble(Property::getPricePerNight))
-                    .collect(Collectors.toList());
+            return getCheapestAvailableProperties(date, date, Integer.MAX_VALUE, 0, Double.MAX_VALUE);
         } catch (Exception e) {
             throw new BusinessLogicException("Error retrieving available properties by date: " + e.getMessage(), e);
         }
     }
 
-    public List<Property> getPropertiesByTotalReviews() {
+    /**
+     * The {@code limit} cheapest properties free between the dates and priced within [minPrice, maxPrice].
+     * Walks the price index from the cheapest up and stops at the limit-th available one.
+     */
+    public List<Property> getCheapestAvailableProperties(Date checkInDate, Date checkOutDate, int limit, double minPrice, double maxPrice) {
         try {
-            Map<Property, Double> propertyReviewAverage = new HashMap<>();
+            if (limit <= 0) {
+                return new ArrayList<>();
+            }
+            List<Integer> propertyIds = new ArrayList<>();
+            Iterator<Integer> candidates = priceIndex.get().cheapestFirst(minPrice, maxPrice);
+            while (candidates.hasNext() && propertyIds.size() < limit) {
+                int propertyId = candidates.next();
+                if (bookingCalendar.get().isAvailable(propertyId, checkInDate, checkOutDate)) {
+                    propertyIds.add(propertyId);
+                }
+            }
 
-            for (Property property : propertyRepo.getAll()) {
-                List<Review> reviews = reviewRepo.getAll().stream()
-                        .filter(review -> review.getPropertyID() == property.getId())
-                        .collect(Collectors.toList());
+            Map<Integer, Property> properties = new HashMap<>();
+            propertiesWithAmenities.readAll(propertyIds).forEach(property -> properties.put(property.getId(), property));
+            List<Property> cheapest = new ArrayList<>(propertyIds.size());
+            for (int propertyId : propertyIds) {
+                Property property = properties.get(propertyId);
+                if (property != null) {
+                    cheapest.add(property);
+                }
+            }
+            return cheapest;
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving cheapest available properties: " + e.getMessage(), e);
+        }
+    }
 
-                double averageRating = reviews.stream()
-                        .mapToDouble(Review::getRating)
-                        .average()
-                        .orElse(0.0);
+    public List<Property> getPropertiesByTotalReviews() {
+        try {
+            Map<Integer, Property> properties = new LinkedHashMap<>();
+            propertiesWithAmenities.getAll().forEach(property -> properties.put(property.getId(), property));
 
-                propertyReviewAverage.put(property, averageRating);
+            // Reviewed properties in rating order, then the ones nobody has reviewed yet
+            List<Property> ranked = new ArrayList<>(properties.size());
+            for (int propertyId : reviewAggregates.get().ranked()) {
+                Property property = properties.remove(propertyId);
+                if (property != null) {
+                    ranked.add(property);
+                }
             }
+            ranked.addAll(properties.values());
+            return ranked;
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving properties by total reviews: " + e.getMessage(), e);
+        }
+    }
 
-            return propertyReviewAverage.entrySet().stream()
-                    .sorted(Map.Entry.<Property, Double>comparingByValue().reversed())
-                    .map(Map.Entry::getKey)
+    public List<Property> getTopRatedProperties(int limit) {
+        try {
+            // One read for the whole ranking, with amenities loaded, then back into rank order
+            List<Integer> ranked = reviewAggregates.get().topRated(limit);
+            Map<Integer, Property> properties = new HashMap<>();
+            propertiesWithAmenities.readAll(ranked).forEach(property -> properties.put(property.getId(), property));
+            return ranked.stream()
+                    .map(properties::get)
+                    .filter(Objects::nonNull)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            throw new BusinessLogicException("Error retrieving properties by total reviews: " + e.getMessage(), e);
+            throw new BusinessLogicException("Error retrieving top rated properties: " + e.getMessage(), e);
+        }
+    }
+
+    public double getAverageRating(int propertyId) {
+        try {
+            return reviewAggregates.get().averageRating(propertyId);
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error retrieving average rating: " + e.getMessage(), e);
         }
     }
 
     public void addAmenity(Amenity amenity) {
         try {
-            amenityRepo.create(amenity);
+            createAmenity(amenity);
         } catch (Exception e) {
             throw new BusinessLogicException("Error adding amenity: " + e.getMessage(), e);
         }
@@ -483,7 +828,7 @@ public class PropertyBookingService {
 
     public void addLocation(Location location) {
         try {
-            locationRepo.create(location);
+            location.setId(locationsByKey.get().getOrCreate(location, this::saveLocation).getId());
         } catch (Exception e) {
             throw new BusinessLogicException("Error adding location: " + e.getMessage(), e);
         }
@@ -543,7 +888,8 @@ public class PropertyBookingService {
             if (policy == null) {
                 throw new BusinessLogicException("Cancellation policy cannot be null.");
             }
-            cancellationPolicyRepo.create(policy);
+            // A policy with the same description is reused; the caller's instance takes its id
+            policy.setId(policiesByDescription.get().getOrCreate(policy, this::saveCancellationPolicy).getId());
         } catch (Exception e) {
             throw new BusinessLogicException("Error adding cancellation policy: " + e.getMessage(), e);
         }
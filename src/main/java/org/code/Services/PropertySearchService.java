@@ -0,0 +1,205 @@
+package org.code.Services;
+
+import org.code.Entities.Location;
+import org.code.Entities.Property;
+import org.code.Exceptions.BusinessLogicException;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for guest searches. The planner estimates how many properties each indexed
+ * criterion (location, amenities, price, rating) matches, enumerates the smallest one and checks
+ * the others, plus availability for the stay, per candidate id. A criterion that matches nothing
+ * ends the search before any filter runs. Properties are only loaded for the ids that end up on
+ * the page.
+ */
+public class PropertySearchService {
+    private final PropertyBookingService bookingService;
+
+    public PropertySearchService(PropertyBookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    public SearchResult search(SearchCriteria criteria) {
+        try {
+            List<Source> sources = sourcesFor(criteria);
+            Source driver = cheapest(sources);
+            if (driver != null && driver.estimate == 0) {
+                return new SearchResult(new ArrayList<>(), null, "no matches by " + driver.name);
+            }
+            RoaringBitmap candidates = driver == null ? allProperties() : driver.ids();
+
+            List<IntPredicate> filters = new ArrayList<>();
+            StringBuilder plan = new StringBuilder(driver == null ? "scan all" : "drive by " + driver.name + " (" + driver.estimate + ")");
+            for (Source source : sources) {
+                if (source != driver) {
+                    filters.add(source::test);
+                    plan.append(", filter by ").append(source.name);
+                }
+            }
+            if (criteria.hasStay()) {
+                filters.add(propertyId -> bookingService.bookingCalendar()
+                        .isAvailable(propertyId, criteria.getCheckInDate(), criteria.getCheckOutDate()));
+                plan.append(", filter by availability");
+            }
+
+            List<Integer> page = new ArrayList<>(criteria.getPageSize());
+            boolean more = false;
+            PeekableIntIterator propertyIds = candidates.getIntIterator();
+            propertyIds.advanceIfNeeded(criteria.getCursor() + 1);
+            while (propertyIds.hasNext()) {
+                int propertyId = propertyIds.next();
+                if (matchesAll(filters, propertyId)) {
+                    if (page.size() == criteria.getPageSize()) {
+                        more = true;
+                        break;
+                    }
+                    page.add(propertyId);
+                }
+            }
+
+            List<Property> properties = new ArrayList<>(bookingService.propertiesWithAmenities().readAll(page));
+            properties.sort(Comparator.comparingInt(Property::getId));
+            Integer nextCursor = more ? page.get(page.size() - 1) : null;
+            return new SearchResult(properties, nextCursor, plan.toString());
+        } catch (Exception e) {
+            throw new BusinessLogicException("Error searching properties: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Source> sourcesFor(SearchCriteria criteria) {
+        List<Source> sources = new ArrayList<>();
+        if (criteria.hasLocation()) {
+            sources.add(new BitmapSource("location", () -> {
+                RoaringBitmap ids = new RoaringBitmap();
+                Location location = bookingService.getLocationByCityAndCountry(criteria.getCity(), criteria.getCountry());
+                if (location != null) {
+                    bookingService.locationIndex().propertiesIn(location).forEach(ids::add);
+                }
+                return ids;
+            }));
+        }
+        if (criteria.hasAmenities()) {
+            sources.add(new BitmapSource("amenities", () -> bookingService.amenityIndex().propertiesWithAll(criteria.getAmenityIds())));
+        }
+        if (criteria.hasPriceRange()) {
+            sources.add(new PriceSource(criteria.getMinPrice(), criteria.getMaxPrice()));
+        }
+        if (criteria.hasMinRating()) {
+            sources.add(new BitmapSource("rating", () -> {
+                RoaringBitmap ids = new RoaringBitmap();
+                bookingService.reviewAggregates().ratedAtLeast(criteria.getMinRating()).forEach(ids::add);
+                return ids;
+            }));
+        }
+        return sources;
+    }
+
+    // Exact sources are sized first so the capped price count can stop at the best estimate so far.
+    private Source cheapest(List<Source> sources) {
+        Source best = null;
+        List<Source> ordered = new ArrayList<>(sources);
+        ordered.sort(Comparator.comparing(source -> source instanceof PriceSource));
+        for (Source source : ordered) {
+            int cap = best == null ? Integer.MAX_VALUE : best.estimate;
+            source.estimate = source.estimate(cap);
+            if (best == null || source.estimate < best.estimate) {
+                best = source;
+            }
+        }
+        return best;
+    }
+
+    private RoaringBitmap allProperties() {
+        RoaringBitmap ids = new RoaringBitmap();
+        bookingService.priceIndex().cheapestFirst(-Double.MAX_VALUE, Double.MAX_VALUE).forEachRemaining(ids::add);
+        return ids;
+    }
+
+    private static boolean matchesAll(List<IntPredicate> filters, int propertyId) {
+        for (IntPredicate filter : filters) {
+            if (!filter.test(propertyId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private abstract static class Source {
+        final String name;
+        int estimate;
+
+        Source(String name) {
+            this.name = name;
+        }
+
+        /** Number of matching properties, or any value of at least {@code cap} when there are more. */
+        abstract int estimate(int cap);
+
+        abstract RoaringBitmap ids();
+
+        abstract boolean test(int propertyId);
+    }
+
+    // Criteria whose matches are cheap to materialize; the bitmap is built once and reused as the filter.
+    private static final class BitmapSource extends Source {
+        private final Supplier<RoaringBitmap> loader;
+        private RoaringBitmap ids;
+
+        BitmapSource(String name, Supplier<RoaringBitmap> loader) {
+            super(name);
+            this.loader = loader;
+        }
+
+        @Override
+        int estimate(int cap) {
+            return ids().getCardinality();
+        }
+
+        @Override
+        RoaringBitmap ids() {
+            if (ids == null) {
+                ids = loader.get();
+            }
+            return ids;
+        }
+
+        @Override
+        boolean test(int propertyId) {
+            return ids().contains(propertyId);
+        }
+    }
+
+    private final class PriceSource extends Source {
+        private final double minPrice;
+        private final double maxPrice;
+
+        PriceSource(double minPrice, double maxPrice) {
+            super("price");
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+        }
+
+        @Override
+        int estimate(int cap) {
+            return bookingService.priceIndex().countInRange(minPrice, maxPrice, cap);
+        }
+
+        @Override
+        RoaringBitmap ids() {
+            RoaringBitmap ids = new RoaringBitmap();
+            bookingService.priceIndex().cheapestFirst(minPrice, maxPrice).forEachRemaining(ids::add);
+            return ids;
+        }
+
+        @Override
+        boolean test(int propertyId) {
+            Double price = bookingService.priceIndex().priceOf(propertyId);
+            return price != null && price >= minPrice && price <= maxPrice;
+        }
+    }
+}
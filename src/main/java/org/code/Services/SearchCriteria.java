@@ -0,0 +1,127 @@
+package org.code.Services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * What a guest is looking for. Every part is optional; unset parts do not filter.
+ * Pages are ordered by property id and continued with the cursor of the previous result.
+ */
+public class SearchCriteria {
+    private String city;
+    private String country;
+    private Date checkInDate;
+    private Date checkOutDate;
+    private double minPrice = 0;
+    private double maxPrice = Double.MAX_VALUE;
+    private final List<Integer> amenityIds = new ArrayList<>();
+    private double minRating = 0;
+    private int pageSize = 20;
+    private int cursor = 0;
+
+    public static SearchCriteria create() {
+        return new SearchCriteria();
+    }
+
+    public SearchCriteria location(String city, String country) {
+        this.city = city;
+        this.country = country;
+        return this;
+    }
+
+    public SearchCriteria stay(Date checkInDate, Date checkOutDate) {
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        return this;
+    }
+
+    public SearchCriteria price(double minPrice, double maxPrice) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    public SearchCriteria amenities(Collection<Integer> amenityIds) {
+        this.amenityIds.addAll(amenityIds);
+        return this;
+    }
+
+    public SearchCriteria minRating(double minRating) {
+        this.minRating = minRating;
+        return this;
+    }
+
+    public SearchCriteria pageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /** Continues after the given cursor, as returned in {@link SearchResult#getNextCursor()}. */
+    public SearchCriteria after(int cursor) {
+        this.cursor = cursor;
+        return this;
+    }
+
+    public boolean hasLocation() {
+        return city != null && country != null;
+    }
+
+    public boolean hasStay() {
+        return checkInDate != null && checkOutDate != null;
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice > 0 || maxPrice < Double.MAX_VALUE;
+    }
+
+    public boolean hasAmenities() {
+        return !amenityIds.isEmpty();
+    }
+
+    public boolean hasMinRating() {
+        return minRating > 0;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public Date getCheckInDate() {
+        return checkInDate;
+    }
+
+    public Date getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public List<Integer> getAmenityIds() {
+        return Collections.unmodifiableList(amenityIds);
+    }
+
+    public double getMinRating() {
+        return minRating;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+}
@@ -0,0 +1,31 @@
+package org.code.Services;
+
+import org.code.Entities.Property;
+
+import java.util.List;
+
+public class SearchResult {
+    private final List<Property> properties;
+    private final Integer nextCursor;
+    private final String plan;
+
+    public SearchResult(List<Property> properties, Integer nextCursor, String plan) {
+        this.properties = properties;
+        this.nextCursor = nextCursor;
+        this.plan = plan;
+    }
+
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /** Cursor for the next page, or null when this was the last one. */
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    /** Which index drove the search and which criteria were applied as filters. */
+    public String getPlan() {
+        return plan;
+    }
+}
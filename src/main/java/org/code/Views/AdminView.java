@@ -28,6 +28,8 @@ public class AdminView {
                 case 3 -> controller.listAllHosts();
                 case 4 -> controller.listAllGuests();
                 case 5 -> filterGuestsByBookingCount();
+                case 6 -> controller.showCacheStatistics();
+                case 7 -> controller.showPoolStatistics();
                 case 0 -> running = false;
                 default -> System.out.println("Invalid choice. Please try again.");
             }
@@ -41,6 +43,8 @@ public class AdminView {
         System.out.println("3. View all Hosts");
         System.out.println("4. View all Guests");
         System.out.println("5. Filter Guests by Booking Count");
+        System.out.println("6. View Cache Statistics");
+        System.out.println("7. View Connection Pool Statistics");
         System.out.println("0. Go back");
         System.out.print("Choose an option: ");
     }
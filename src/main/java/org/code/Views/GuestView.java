@@ -3,11 +3,15 @@ package org.code.Views;
 import org.code.Controller.PropertyBookingController;
 import org.code.Entities.Booking;
 import org.code.Entities.Guest;
+import org.code.Exceptions.BusinessLogicException;
 import org.code.Exceptions.ValidationException;
 import org.code.Helpers.HelperFunctions;
+import org.code.Services.SearchCriteria;
 import org.code.Entities.Location;
 
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
@@ -37,6 +41,9 @@ public class GuestView {
                 case 5 -> filterPropertiesByLocation();
                 case 6 -> viewPropertiesByDate();
                 case 7 -> viewAvailablePropertiesByDateSortedByPrice();
+                case 8 -> searchPropertiesByAmenities();
+                case 9 -> findCheapestAvailableProperties();
+                case 10 -> searchProperties();
                 case 0 -> running = false;
                 default -> System.out.println("Invalid choice. Please try again.");
             }
@@ -53,6 +60,9 @@ public class GuestView {
         System.out.println("5. Filter Properties by Location");
         System.out.println("6. View Properties by Date");
         System.out.println("7. View Available Properties by Date Sorted by Price");
+        System.out.println("8. Search Properties by Amenities");
+        System.out.println("9. Find Cheapest Available Properties");
+        System.out.println("10. Search Properties");
         System.out.println("0. Go back");
         System.out.print("Choose an option: ");
     }
@@ -114,6 +124,25 @@ public class GuestView {
         }
     }
 
+    private void searchPropertiesByAmenities() {
+        try {
+            System.out.println("Available amenities:");
+            controller.getAllAmenities().forEach(amenity -> System.out.println(amenity.getId() + ". " + amenity.getName()));
+            System.out.print("Enter amenity IDs separated by commas: ");
+            List<Integer> amenityIds = new ArrayList<>();
+            for (String id : scanner.nextLine().split(",")) {
+                if (!id.isBlank()) {
+                    amenityIds.add(Integer.parseInt(id.trim()));
+                }
+            }
+            controller.searchPropertiesByAmenities(amenityIds);
+        } catch (ValidationException e) {
+            System.out.println("Validation Error: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.out.println("Amenity IDs must be numbers.");
+        }
+    }
+
     private void viewPropertiesByDate() {
         try {
             System.out.print("Enter date (YYYY-MM-DD): ");
@@ -163,4 +192,95 @@ public class GuestView {
             System.out.println("Invalid date format. Please enter in YYYY-MM-DD format.");
         }
     }
-}
\ No newline at end of file
+
+    private void findCheapestAvailableProperties() {
+        try {
+            System.out.print("Enter check-in date (YYYY-MM-DD): ");
+            Date checkInDate = new SimpleDateFormat("yyyy-MM-dd").parse(scanner.nextLine());
+
+            System.out.print("Enter check-out date (YYYY-MM-DD): ");
+            Date checkOutDate = new SimpleDateFormat("yyyy-MM-dd").parse(scanner.nextLine());
+
+            System.out.print("How many properties to show: ");
+            int limit = Integer.parseInt(scanner.nextLine());
+
+            System.out.print("Minimum price per night (empty for none): ");
+            String minPrice = scanner.nextLine();
+            System.out.print("Maximum price per night (empty for none): ");
+            String maxPrice = scanner.nextLine();
+
+            controller.listCheapestAvailableProperties(checkInDate, checkOutDate, limit,
+                    minPrice.isBlank() ? 0 : Double.parseDouble(minPrice),
+                    maxPrice.isBlank() ? Double.MAX_VALUE : Double.parseDouble(maxPrice));
+        } catch (ValidationException e) {
+            System.out.println("Validation Error: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.out.println("Please enter valid numbers.");
+        } catch (Exception e) {
+            System.out.println("Invalid date format. Please enter in YYYY-MM-DD format.");
+        }
+    }
+
+    private void searchProperties() {
+        try {
+            SearchCriteria criteria = SearchCriteria.create();
+            System.out.println("Leave a field empty to skip it.");
+
+            System.out.print("City: ");
+            String city = scanner.nextLine();
+            System.out.print("Country: ");
+            String country = scanner.nextLine();
+            if (!city.isBlank() && !country.isBlank()) {
+                criteria.location(city, country);
+            }
+
+            System.out.print("Check-in date (YYYY-MM-DD): ");
+            String checkIn = scanner.nextLine();
+            System.out.print("Check-out date (YYYY-MM-DD): ");
+            String checkOut = scanner.nextLine();
+            if (!checkIn.isBlank() && !checkOut.isBlank()) {
+                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                criteria.stay(format.parse(checkIn), format.parse(checkOut));
+            }
+
+            System.out.print("Minimum price per night: ");
+            String minPrice = scanner.nextLine();
+            System.out.print("Maximum price per night: ");
+            String maxPrice = scanner.nextLine();
+            criteria.price(minPrice.isBlank() ? 0 : Double.parseDouble(minPrice),
+                    maxPrice.isBlank() ? Double.MAX_VALUE : Double.parseDouble(maxPrice));
+
+            System.out.print("Amenity IDs separated by commas: ");
+            List<Integer> amenityIds = new ArrayList<>();
+            for (String id : scanner.nextLine().split(",")) {
+                if (!id.isBlank()) {
+                    amenityIds.add(Integer.parseInt(id.trim()));
+                }
+            }
+            criteria.amenities(amenityIds);
+
+            System.out.print("Minimum rating (0.0 - 5.0): ");
+            String minRating = scanner.nextLine();
+            if (!minRating.isBlank()) {
+                criteria.minRating(Double.parseDouble(minRating));
+            }
+
+            Integer cursor = controller.searchProperties(criteria);
+            while (cursor != null) {
+                System.out.print("Show more? (y/n): ");
+                if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    break;
+                }
+                cursor = controller.searchProperties(criteria.after(cursor));
+            }
+        } catch (ValidationException e) {
+            System.out.println("Validation Error: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.out.println("Please enter valid numbers.");
+        } catch (ParseException e) {
+            System.out.println("Invalid date format. Please enter in YYYY-MM-DD format.");
+        } catch (BusinessLogicException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+}
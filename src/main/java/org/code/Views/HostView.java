@@ -95,8 +95,7 @@ public class HostView {
                 String amenityDescription = scanner.nextLine();
                 if (amenityDescription.isEmpty()) throw new ValidationException("Amenity description cannot be empty.");
 
-                int newAmenityId = HelperFunctions.randomId();
-                amenity = new Amenity(newAmenityId, amenityName, amenityDescription);
+                amenity = new Amenity(0, amenityName, amenityDescription);
                 controller.addAmenity(amenity);
             } else {
                 amenity = controller.getAmenityById(amenityId);
@@ -172,8 +171,7 @@ public class HostView {
                 String amenityDescription = scanner.nextLine();
                 if (amenityDescription.isEmpty()) throw new ValidationException("Amenity description cannot be empty.");
 
-                int newAmenityId = HelperFunctions.randomId();
-                amenity = new Amenity(newAmenityId, amenityName, amenityDescription);
+                amenity = new Amenity(0, amenityName, amenityDescription);
                 controller.addAmenity(amenity);
             } else {
                 amenity = controller.getAmenityById(amenityId);
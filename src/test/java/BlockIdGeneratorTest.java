@@ -0,0 +1,115 @@
+import org.code.Entities.Booking;
+import org.code.Entities.Payment;
+import org.code.Entities.Review;
+import org.code.Ids.BlockIdGenerator;
+import org.code.Ids.FileHighWaterMarkStore;
+import org.code.Ids.InMemoryHighWaterMarkStore;
+import org.code.Repository.LogFileRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockIdGeneratorTest {
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 5000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testConcurrentCallsNeverRepeatAnId() throws Exception {
+        BlockIdGenerator generator = new BlockIdGenerator(new InMemoryHighWaterMarkStore(), type -> 0, 10);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                go.await();
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    int id = generator.nextId(Booking.class);
+                    assertTrue(id > 0);
+                    assertTrue(ids.add(id), "id " + id + " handed out twice");
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    void testEntityTypesHaveIndependentSequences() {
+        BlockIdGenerator generator = new BlockIdGenerator(new InMemoryHighWaterMarkStore());
+        assertEquals(1, generator.nextId(Booking.class));
+        assertEquals(2, generator.nextId(Booking.class));
+        assertEquals(1, generator.nextId(Payment.class));
+        assertEquals(3, generator.nextId(Booking.class));
+        assertEquals(2, generator.nextId(Payment.class));
+    }
+
+    @Test
+    void testIdsStayUniqueAcrossRestarts() {
+        String marks = dir.resolve("ids.properties").toString();
+        Set<Integer> handedOut = new HashSet<>();
+
+        // Stops part way through its second block
+        BlockIdGenerator first = new BlockIdGenerator(new FileHighWaterMarkStore(marks), type -> 0, 10);
+        for (int i = 0; i < 15; i++) {
+            assertTrue(handedOut.add(first.nextId(Review.class)));
+        }
+
+        // Crosses several saved marks before stopping mid-block
+        BlockIdGenerator second = new BlockIdGenerator(new FileHighWaterMarkStore(marks), type -> 0, 10);
+        for (int i = 0; i < 2005; i++) {
+            assertTrue(handedOut.add(second.nextId(Review.class)));
+        }
+
+        BlockIdGenerator third = new BlockIdGenerator(new FileHighWaterMarkStore(marks), type -> 0, 10);
+        int max = Collections.max(handedOut);
+        for (int i = 0; i < 100; i++) {
+            int id = third.nextId(Review.class);
+            assertTrue(id > max, "id " + id + " not past " + max);
+            assertTrue(handedOut.add(id));
+        }
+        // Other types were never reserved and still start at 1
+        assertEquals(1, third.nextId(Payment.class));
+    }
+
+    @Test
+    void testSeedingFromStoredIdsSkipsThem() throws Exception {
+        try (LogFileRepository<Payment> paymentRepo = new LogFileRepository<>(dir.resolve("payments.txt").toString())) {
+            for (int id = 1; id <= 50; id++) {
+                paymentRepo.create(new Payment(id, id, new Date()));
+            }
+            paymentRepo.create(new Payment(500, 500, new Date()));
+
+            // A stale mark below the stored ids must not win
+            InMemoryHighWaterMarkStore store = new InMemoryHighWaterMarkStore();
+            store.save(Payment.class.getName(), 100);
+            BlockIdGenerator generator = new BlockIdGenerator(store, type -> paymentRepo.maxId(), 10);
+            for (int i = 0; i < 100; i++) {
+                int id = generator.nextId(Payment.class);
+                assertNull(paymentRepo.read(id), "id " + id + " is already stored");
+                assertTrue(id > 500, "id " + id);
+                paymentRepo.create(new Payment(id, id, new Date()));
+            }
+        }
+
+        // A mark above the stored ids wins over them
+        InMemoryHighWaterMarkStore store = new InMemoryHighWaterMarkStore();
+        store.save(Booking.class.getName(), 10_000);
+        BlockIdGenerator generator = new BlockIdGenerator(store, type -> 50, 10);
+        assertEquals(10_001, generator.nextId(Booking.class));
+    }
+}
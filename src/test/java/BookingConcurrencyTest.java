@@ -0,0 +1,121 @@
+import org.code.Entities.*;
+import org.code.Exceptions.BusinessLogicException;
+import org.code.Repository.IRepository;
+import org.code.Repository.InMemoryRepo;
+import org.code.Services.PropertyBookingService;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookingConcurrencyTest {
+    private static final long DAY = 1000L * 60 * 60 * 24;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 500;
+
+    private PropertyBookingService bookingService;
+    private List<Property> properties;
+    private List<Guest> guests;
+
+    @BeforeAll
+    void setup() {
+        IRepository<Host> hostRepo = new InMemoryRepo<>();
+        IRepository<Guest> guestRepo = new InMemoryRepo<>();
+        IRepository<Property> propertyRepo = new InMemoryRepo<>();
+        IRepository<Booking> bookingRepo = new InMemoryRepo<>();
+        IRepository<Review> reviewRepo = new InMemoryRepo<>();
+        IRepository<Amenity> amenityRepo = new InMemoryRepo<>();
+        IRepository<Location> locationRepo = new InMemoryRepo<>();
+        IRepository<CancellationPolicy> cancellationPolicyRepo = new InMemoryRepo<>();
+        IRepository<Payment> paymentRepo = new InMemoryRepo<>();
+
+        bookingService = new PropertyBookingService(
+                hostRepo, guestRepo, propertyRepo, bookingRepo, reviewRepo, amenityRepo, locationRepo, cancellationPolicyRepo, paymentRepo, null
+        );
+
+        Host host = new Host(1, "John Doe", "john@example.com", "1234567890", 4.5);
+        bookingService.addHost(host);
+
+        guests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Guest guest = new Guest(i + 1, "Guest " + i, "guest" + i + "@example.com", "0700000000", 4.0);
+            bookingService.addGuest(guest);
+            guests.add(guest);
+        }
+
+        properties = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Property property = new Property(i + 1, i + " Main St", 100.0, "A nice place", new Location("New York", "USA"),
+                    List.of(), new CancellationPolicy(1, "Flexible"), host.getId());
+            bookingService.addProperty(property);
+            properties.add(property);
+        }
+    }
+
+    @Test
+    void testConcurrentBookingsNeverOverlap() throws Exception {
+        Date start = new Date();
+        AtomicInteger successful = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Guest guest = guests.get(t);
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                go.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    Property property = properties.get(random.nextInt(properties.size()));
+                    Date checkIn = new Date(start.getTime() + random.nextInt(60) * DAY);
+                    Date checkOut = new Date(checkIn.getTime() + (1 + random.nextInt(5)) * DAY);
+                    try {
+                        bookingService.bookProperty(guest, property, checkIn, checkOut);
+                        successful.incrementAndGet();
+                    } catch (BusinessLogicException e) {
+                        // Dates already taken by another guest
+                    }
+                }
+                return null;
+            }));
+        }
+
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int stored = 0;
+        for (Property property : properties) {
+            List<Booking> bookings = bookingService.getBookingsForProperty(property.getId());
+            stored += bookings.size();
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    boolean overlap = a.getCheckInDate().before(b.getCheckOutDate()) && a.getCheckOutDate().after(b.getCheckInDate());
+                    assertFalse(overlap, "Bookings " + a.getId() + " and " + b.getId() + " overlap");
+                }
+            }
+        }
+        assertTrue(successful.get() > 0);
+        assertEquals(successful.get(), stored);
+
+        List<Integer> frequentGuests = new ArrayList<>();
+        for (Guest guest : guests) {
+            if (bookingService.getBookingsForGuest(guest.getId()).size() >= 2) {
+                frequentGuests.add(guest.getId());
+            }
+        }
+        List<Integer> filtered = new ArrayList<>();
+        bookingService.filterGuestsByBookingCount(2).forEach(guest -> filtered.add(guest.getId()));
+        assertEquals(frequentGuests, filtered);
+    }
+}
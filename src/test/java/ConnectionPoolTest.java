@@ -0,0 +1,91 @@
+import com.zaxxer.hikari.HikariConfig;
+import org.code.Connections.HikariConnectionProvider;
+import org.code.Connections.PoolMetrics;
+import org.code.Entities.Amenity;
+import org.code.Helpers.PoolStatistics;
+import org.code.Repository.DBRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ConnectionPoolTest {
+    private SessionFactory sessionFactory;
+    private HikariConnectionProvider provider;
+
+    @BeforeAll
+    void setup() {
+        sessionFactory = new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty(AvailableSettings.CONNECTION_PROVIDER, HikariConnectionProvider.class.getName())
+                .setProperty("hibernate.hikari.maximumPoolSize", "4")
+                .buildSessionFactory();
+        provider = (HikariConnectionProvider) sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testMetricsTrackCheckouts() throws Exception {
+        DBRepository<Amenity> amenityRepo = new DBRepository<>(sessionFactory, Amenity.class);
+        long checkoutsBefore = provider.metrics().getCheckouts();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            executor.submit(() -> amenityRepo.create(new Amenity(0, "Amenity " + n, "Pool test")));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        PoolMetrics metrics = provider.metrics();
+        assertTrue(metrics.getCheckouts() - checkoutsBefore >= 200, "checkouts: " + metrics.getCheckouts());
+        assertEquals(metrics.getCheckouts(), Arrays.stream(metrics.getCheckoutLatencyBuckets()).sum());
+        assertEquals(0, metrics.getActive());
+        assertTrue(metrics.getTotal() <= 4);
+        assertEquals(metrics.getTotal(), metrics.getIdle());
+        assertEquals(0, metrics.getCheckoutTimeouts());
+
+        List<String> summary = PoolStatistics.summary(sessionFactory);
+        assertTrue(summary.get(0).startsWith("Connections: 0 active, "), summary.get(0));
+        assertTrue(summary.get(1).startsWith(String.format("Checkouts: %d, timeouts: 0, mean wait ", metrics.getCheckouts())), summary.get(1));
+        // One line per non-empty latency bucket, together counting every checkout
+        List<String> buckets = summary.subList(2, summary.size());
+        assertEquals(Arrays.stream(metrics.getCheckoutLatencyBuckets()).filter(count -> count > 0).count(), buckets.size());
+        assertEquals(metrics.getCheckouts(), buckets.stream()
+                .mapToLong(line -> Long.parseLong(line.substring(line.lastIndexOf(' ') + 1)))
+                .sum());
+    }
+
+    @Test
+    void testPoolConfigDerivedFromHibernateSettings() {
+        HikariConfig config = HikariConnectionProvider.configFrom(Map.of(
+                AvailableSettings.URL, "jdbc:h2:mem:pool",
+                AvailableSettings.USER, "sa",
+                AvailableSettings.POOL_SIZE, "7",
+                "hibernate.hikari.validationTimeout", "1500"));
+
+        assertEquals("jdbc:h2:mem:pool", config.getJdbcUrl());
+        assertEquals("sa", config.getUsername());
+        assertEquals(7, config.getMaximumPoolSize());
+        assertEquals(1500, config.getValidationTimeout());
+        assertFalse(config.isAutoCommit());
+        assertNull(config.getConnectionTestQuery());
+    }
+}
@@ -0,0 +1,91 @@
+import org.code.Entities.Amenity;
+import org.code.Repository.DBRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DBRepositoryBatchTest {
+    private static final int ROWS = 2000;
+
+    private SessionFactory sessionFactory;
+    private DBRepository<Amenity> amenityRepo;
+
+    @BeforeAll
+    void setup() {
+        sessionFactory = new Configuration().configure("hibernate-test.cfg.xml").buildSessionFactory();
+        amenityRepo = new DBRepository<>(sessionFactory, Amenity.class);
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testCreateAllAndUpdateAll() {
+        List<Amenity> amenities = amenities("bulk");
+        amenityRepo.createAll(amenities);
+        assertTrue(amenities.stream().allMatch(amenity -> amenity.getId() > 0));
+        assertEquals("bulk 0", amenityRepo.read(amenities.get(0).getId()).getName());
+
+        for (Amenity amenity : amenities) {
+            amenity.setName(amenity.getName() + " updated");
+        }
+        // Entities missing from the database are skipped, as with update()
+        List<Amenity> toUpdate = new ArrayList<>(amenities);
+        toUpdate.add(new Amenity(Integer.MAX_VALUE, "missing", "missing"));
+        amenityRepo.updateAll(toUpdate);
+
+        Amenity last = amenityRepo.read(amenities.get(ROWS - 1).getId());
+        assertEquals("bulk " + (ROWS - 1) + " updated", last.getName());
+        assertNull(amenityRepo.read(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testCreateAllSendsBatches() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        for (Amenity amenity : amenities("row")) {
+            amenityRepo.create(amenity);
+        }
+        long perRowStatements = statistics.getPrepareStatementCount();
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertTrue(perRowStatements >= ROWS, "one insert statement per row, was " + perRowStatements);
+
+        statistics.clear();
+        amenityRepo.createAll(amenities("batch"));
+        long batchedStatements = statistics.getPrepareStatementCount();
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // One insert statement per batch of 50, plus one sequence call per block of 50 ids
+        assertTrue(batchedStatements <= 2 * (ROWS / 50) + 2, "expected batched inserts, was " + batchedStatements);
+        assertTrue(statistics.getFlushCount() <= ROWS / 50 + 1, "flushes once per batch, was " + statistics.getFlushCount());
+
+        // The id generator's seed is one aggregate query, not a scan of the table
+        statistics.clear();
+        int maxId = amenityRepo.maxId();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(amenityRepo.getAll().stream().mapToInt(Amenity::getId).max().orElse(0), maxId);
+
+        assertEquals(2 * ROWS, amenityRepo.page(0, 3 * ROWS).stream()
+                .filter(amenity -> amenity.getName().startsWith("row") || amenity.getName().startsWith("batch"))
+                .count());
+    }
+
+    private static List<Amenity> amenities(String prefix) {
+        List<Amenity> amenities = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            amenities.add(new Amenity(0, prefix + " " + i, "description"));
+        }
+        return amenities;
+    }
+}
@@ -0,0 +1,104 @@
+import org.code.Entities.Amenity;
+import org.code.Repository.InMemoryRepo;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryRepoConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ENTITIES_PER_THREAD = 5000;
+
+    @Test
+    void testConcurrentCreateUpdateDelete() throws Exception {
+        InMemoryRepo<Amenity> repo = new InMemoryRepo<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<Integer>>> writers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            writers.add(executor.submit(() -> {
+                go.await();
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < ENTITIES_PER_THREAD; i++) {
+                    Amenity amenity = new Amenity(0, "Amenity " + thread + "-" + i, "created");
+                    repo.create(amenity);
+                    ids.add(amenity.getId());
+                }
+                return ids;
+            }));
+        }
+        // Snapshots taken while the writers run must never contain missing or duplicate entries
+        Future<?> reader = executor.submit(() -> {
+            go.await();
+            for (int i = 0; i < 200; i++) {
+                List<Amenity> snapshot = repo.getAll();
+                assertFalse(snapshot.contains(null));
+                assertEquals(snapshot.size(), new HashSet<>(snapshot).size());
+            }
+            return null;
+        });
+
+        go.countDown();
+        Set<Integer> allIds = new HashSet<>();
+        for (Future<List<Integer>> writer : writers) {
+            allIds.addAll(writer.get(60, TimeUnit.SECONDS));
+        }
+        reader.get(60, TimeUnit.SECONDS);
+
+        assertEquals(THREADS * ENTITIES_PER_THREAD, allIds.size());
+        assertEquals(THREADS * ENTITIES_PER_THREAD, repo.getAll().size());
+
+        // Delete the even ids and update the odd ones concurrently
+        List<Integer> ids = new ArrayList<>(allIds);
+        List<Future<?>> mutators = new ArrayList<>();
+        int chunk = ids.size() / THREADS;
+        for (int t = 0; t < THREADS; t++) {
+            List<Integer> slice = ids.subList(t * chunk, (t + 1) * chunk);
+            mutators.add(executor.submit(() -> {
+                for (int id : slice) {
+                    if (id % 2 == 0) {
+                        repo.delete(id);
+                    } else {
+                        repo.update(new Amenity(id, "Amenity " + id, "updated"));
+                    }
+                }
+            }));
+        }
+        for (Future<?> mutator : mutators) {
+            mutator.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int id : ids) {
+            Amenity amenity = repo.read(id);
+            if (id % 2 == 0) {
+                assertNull(amenity);
+            } else {
+                assertEquals("updated", amenity.getDescription());
+            }
+        }
+        assertEquals(ids.size() / 2, repo.getAll().size());
+        assertThrows(IllegalArgumentException.class, () -> repo.delete(ids.stream().filter(id -> id % 2 == 0).findFirst().get()));
+    }
+
+    @Test
+    void testPageReturnsIdsInOrder() {
+        InMemoryRepo<Amenity> repo = new InMemoryRepo<>();
+        for (int i = 0; i < 250; i++) {
+            repo.create(new Amenity(0, "Amenity " + i, "created"));
+        }
+
+        List<Amenity> firstPage = repo.page(0, 100);
+        List<Amenity> lastPage = repo.page(200, 100);
+
+        assertEquals(100, firstPage.size());
+        assertEquals(1, firstPage.get(0).getId());
+        assertEquals(100, firstPage.get(99).getId());
+        assertEquals(50, lastPage.size());
+        assertEquals(201, lastPage.get(0).getId());
+    }
+}
@@ -0,0 +1,172 @@
+import org.code.Connections.HikariConnectionProvider;
+import org.code.Connections.PoolMetrics;
+import org.code.Entities.Booking;
+import org.code.Entities.Payment;
+import org.code.Exceptions.DatabaseException;
+import org.code.Helpers.IntCounter;
+import org.code.Mappers.BookingMapper;
+import org.code.Mappers.PaymentMapper;
+import org.code.Repository.JdbcRepository;
+import org.code.Repository.QuerySpec;
+import org.code.Repository.TransactionTemplate;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JdbcRepositoryTest {
+    private static final int ROWS = 120;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private SessionFactory sessionFactory;
+    private JdbcRepository<Payment> paymentRepo;
+    private JdbcRepository<Booking> bookingRepo;
+    private HikariConnectionProvider provider;
+
+    @BeforeAll
+    void setup() {
+        sessionFactory = new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty(AvailableSettings.CONNECTION_PROVIDER, HikariConnectionProvider.class.getName())
+                .setProperty("hibernate.hikari.maximumPoolSize", "2")
+                .buildSessionFactory();
+        provider = (HikariConnectionProvider) sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        DataSource dataSource = provider.unwrap(DataSource.class);
+        paymentRepo = new JdbcRepository<>(dataSource, new PaymentMapper(), 100, sessionFactory);
+        bookingRepo = new JdbcRepository<>(dataSource, new BookingMapper(), 100, sessionFactory);
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testBatchedWritesAndJoinedReads() {
+        List<Payment> payments = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            Payment payment = new Payment(i, 100 + i, new Date(i * DAY));
+            if (i % 2 == 0) {
+                payment.processPayment();
+            }
+            payments.add(payment);
+            bookings.add(new Booking(i, new Date((i + 3) * DAY), new Date(i * DAY), 100 + i, i % 4, 1000 + i % 3, payment));
+        }
+        paymentRepo.createAll(payments);
+        bookingRepo.createAll(bookings);
+
+        Booking booking = bookingRepo.read(10);
+        assertEquals(new Date(10 * DAY), booking.getCheckInDate());
+        assertEquals(new Date(13 * DAY), booking.getCheckOutDate());
+        assertEquals(110, booking.getPayment().getAmount());
+        assertTrue(booking.getPayment().isProcessed());
+        assertNull(bookingRepo.read(ROWS + 1));
+
+        // Three ids pad to a four-entry IN list; the duplicate does not add rows
+        assertEquals(Set.of(3, 7, 11), ids(bookingRepo.readAll(List.of(3, 7, 11, 7, ROWS + 5))));
+        assertEquals(ROWS / 3, bookingRepo.findBy("propertyID", 1001).size());
+        List<Booking> unpaid = bookingRepo.findBy(QuerySpec.in("propertyID", List.of(1001, 1002)).and("payment.processed", false));
+        assertFalse(unpaid.isEmpty());
+        assertTrue(unpaid.stream().noneMatch(b -> b.getPayment().isProcessed() || b.getPropertyID() == 1000));
+        // More values than one IN list takes; the query is split and the rows come back once each
+        List<Integer> manyPropertyIds = IntStream.rangeClosed(-2000, 1002).boxed().collect(Collectors.toList());
+        List<Booking> byManyProperties = bookingRepo.findBy(QuerySpec.in("propertyID", manyPropertyIds));
+        assertEquals(ROWS, byManyProperties.size());
+        assertEquals(ids(bookingRepo.getAll()), ids(byManyProperties));
+        IntCounter perGuest = bookingRepo.countGroupedBy("guestID", 1);
+        assertEquals(4, perGuest.size());
+        for (int guestId = 0; guestId < 4; guestId++) {
+            assertEquals(30, perGuest.get(guestId));
+        }
+        assertEquals(List.of(51, 52, 53), bookingRepo.page(50, 3).stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(ROWS, bookingRepo.maxId());
+        try (Stream<Booking> all = bookingRepo.stream()) {
+            assertEquals(ROWS, all.count());
+        }
+
+        for (Payment payment : payments) {
+            payment.setAmount(payment.getAmount() * 2);
+        }
+        // Rows missing from the table are skipped, as with update()
+        List<Payment> toUpdate = new ArrayList<>(payments);
+        toUpdate.add(new Payment(Integer.MAX_VALUE, 1, new Date()));
+        paymentRepo.updateAll(toUpdate);
+        assertEquals(2 * (100 + ROWS), paymentRepo.read(ROWS).getAmount());
+        assertNull(paymentRepo.read(Integer.MAX_VALUE));
+
+        bookingRepo.delete(ROWS);
+        assertNull(bookingRepo.read(ROWS));
+    }
+
+    @Test
+    void testDuplicateIdIsConstraintViolation() {
+        paymentRepo.create(new Payment(5000, 10, new Date()));
+        DatabaseException e = assertThrows(DatabaseException.class, () -> paymentRepo.create(new Payment(5000, 20, new Date())));
+        assertTrue(e.getMessage().startsWith("Constraint violation"));
+        assertEquals(10, paymentRepo.read(5000).getAmount());
+    }
+
+    @Test
+    void testJoinsUnitOfWork() {
+        TransactionTemplate transactions = new TransactionTemplate(sessionFactory);
+        assertThrows(IllegalStateException.class, () -> transactions.execute(() -> {
+            paymentRepo.create(new Payment(6000, 50, new Date()));
+            bookingRepo.create(new Booking(6000, new Date(2 * DAY), new Date(DAY), 50, 1, 1, paymentRepo.read(6000)));
+            assertNotNull(bookingRepo.read(6000));
+            throw new IllegalStateException("abort");
+        }));
+        assertNull(bookingRepo.read(6000));
+        assertNull(paymentRepo.read(6000));
+
+        transactions.execute(() -> paymentRepo.create(new Payment(6001, 50, new Date())));
+        assertNotNull(paymentRepo.read(6001));
+    }
+
+    @Test
+    void testCallsReturnTheirConnections() throws Exception {
+        // More threads than pooled connections; nothing is held between calls
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int first = 7000 + t * 50;
+            futures.add(executor.submit(() -> {
+                for (int id = first; id < first + 50; id++) {
+                    paymentRepo.create(new Payment(id, id, new Date()));
+                    assertEquals(id, paymentRepo.read(id).getAmount());
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertEquals(400, paymentRepo.readAll(IntStream.range(7000, 7400).boxed().collect(Collectors.toList())).size());
+        PoolMetrics metrics = provider.metrics();
+        assertEquals(0, metrics.getActive());
+        assertEquals(0, metrics.getCheckoutTimeouts());
+        assertTrue(metrics.getTotal() <= 2);
+    }
+
+    private static Set<Integer> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,185 @@
+import org.code.Entities.Amenity;
+import org.code.Exceptions.DatabaseException;
+import org.code.Repository.LogFileRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileRepositoryTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAppendOverwriteAndDelete() throws Exception {
+        Path file = dir.resolve("amenities.txt");
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            repo.create(new Amenity(1, "wifi", "fast"));
+            repo.create(new Amenity(2, "pool", "outdoor"));
+            long afterCreates = Files.size(file);
+
+            // A second create with the same id is ignored, as in the other repositories
+            repo.create(new Amenity(1, "ignored", "ignored"));
+            assertEquals(afterCreates, Files.size(file));
+
+            repo.update(new Amenity(1, "wifi", "faster"));
+            assertTrue(Files.size(file) > afterCreates, "updates append instead of rewriting");
+            assertEquals("faster", repo.read(1).getDescription());
+
+            assertEquals(2, repo.maxId());
+            repo.delete(2);
+            assertNull(repo.read(2));
+            assertEquals(1, repo.maxId());
+            assertEquals(List.of(1), ids(repo.getAll()));
+
+            repo.update(new Amenity(3, "missing", "missing"));
+            assertNull(repo.read(3));
+        }
+    }
+
+    @Test
+    void testCompactionKeepsLatestRecords() throws Exception {
+        Path file = dir.resolve("amenities.txt");
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            for (int id = 1; id <= 10; id++) {
+                repo.create(new Amenity(id, "amenity " + id, "v0"));
+            }
+            for (int version = 1; version <= 5; version++) {
+                for (int id = 1; id <= 10; id++) {
+                    repo.update(new Amenity(id, "amenity " + id, "v" + version));
+                }
+            }
+            repo.delete(10);
+            long beforeCompaction = Files.size(file);
+
+            repo.compact();
+            assertTrue(Files.size(file) < beforeCompaction);
+            assertFalse(Files.exists(dir.resolve("amenities.txt.compact")));
+            assertEquals(9, repo.getAll().size());
+            assertEquals("v5", repo.read(4).getDescription());
+
+            // The repository keeps appending to the compacted file
+            repo.create(new Amenity(11, "amenity 11", "v0"));
+            assertEquals("v0", repo.read(11).getDescription());
+        }
+
+        try (LogFileRepository<Amenity> reopened = new LogFileRepository<>(file.toString())) {
+            assertEquals(10, reopened.getAll().size());
+            assertEquals("v5", reopened.read(9).getDescription());
+            assertNull(reopened.read(10));
+        }
+    }
+
+    @Test
+    void testReopenCutsTornTail() throws Exception {
+        Path file = dir.resolve("amenities.txt");
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            repo.create(new Amenity(1, "wifi", "fast"));
+            repo.create(new Amenity(2, "pool", "outdoor"));
+        }
+        long intactSize = Files.size(file);
+
+        // A PUT record whose payload never made it to disk
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer torn = ByteBuffer.allocate(1 + 2 * Integer.BYTES + 3);
+            torn.put((byte) 1).putInt(3).putInt(1000).put(new byte[3]).flip();
+            channel.write(torn);
+        }
+
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            assertEquals(intactSize, Files.size(file));
+            assertEquals(List.of(1, 2), ids(repo.getAll()));
+            assertNull(repo.read(3));
+
+            repo.create(new Amenity(3, "gym", "indoor"));
+        }
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            assertEquals("gym", repo.read(3).getName());
+        }
+    }
+
+    @Test
+    void testConvertsLegacySerializedMap() throws Exception {
+        Path file = dir.resolve("amenities.txt");
+        Map<Integer, Amenity> legacy = new HashMap<>();
+        legacy.put(1, new Amenity(1, "wifi", "fast"));
+        legacy.put(2, new Amenity(2, "pool", "outdoor"));
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+            out.writeObject(legacy);
+        }
+
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            assertEquals(List.of(1, 2), ids(repo.getAll()));
+            assertEquals("outdoor", repo.read(2).getDescription());
+            repo.update(new Amenity(2, "pool", "heated"));
+        }
+        try (LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString())) {
+            assertEquals("heated", repo.read(2).getDescription());
+            assertEquals("wifi", repo.read(1).getName());
+        }
+    }
+
+    @Test
+    void testCompactionAfterCloseLeavesFileAlone() throws Exception {
+        Path file = dir.resolve("amenities.txt");
+        LogFileRepository<Amenity> repo = new LogFileRepository<>(file.toString());
+        repo.create(new Amenity(1, "wifi", "fast"));
+        repo.delete(1);
+        repo.close();
+        long closedSize = Files.size(file);
+
+        // As a compaction queued just before close() would run
+        repo.compact();
+        repo.close();
+        assertEquals(closedSize, Files.size(file));
+        assertFalse(Files.exists(dir.resolve("amenities.txt.compact")));
+    }
+
+    @Test
+    void testIncompatibleLegacyFileIsReportedAndKept() throws Exception {
+        Path file = dir.resolve("amenities.txt");
+        Map<Integer, Amenity> legacy = new HashMap<>();
+        legacy.put(1, new Amenity(1, "wifi", "fast"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(legacy);
+        }
+        // Change the serialVersionUID recorded after the class name, as an older build would have written it
+        byte[] stream = bytes.toByteArray();
+        byte[] className = Amenity.class.getName().getBytes(StandardCharsets.UTF_8);
+        int uid = indexOf(stream, className) + className.length;
+        stream[uid + 7] ^= 1;
+        Files.write(file, stream);
+
+        DatabaseException e = assertThrows(DatabaseException.class, () -> new LogFileRepository<Amenity>(file.toString()));
+        assertTrue(e.getMessage().startsWith("Error converting legacy file"), e.getMessage());
+        assertArrayEquals(stream, Files.readAllBytes(file));
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        for (int i = 0; i + needle.length <= haystack.length; i++) {
+            if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("not found");
+    }
+
+    private static List<Integer> ids(List<Amenity> amenities) {
+        return amenities.stream().map(Amenity::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,163 @@
+import org.code.Entities.Booking;
+import org.code.Entities.Payment;
+import org.code.Exceptions.DatabaseException;
+import org.code.Mappers.BookingRecordCodec;
+import org.code.Mappers.PaymentRecordCodec;
+import org.code.Repository.LogFileRepository;
+import org.code.Repository.MappedRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedRecordRepositoryTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testCodecsRoundTrip() {
+        PaymentRecordCodec paymentCodec = new PaymentRecordCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(3 + paymentCodec.recordSize());
+        Payment payment = new Payment(7, 123.45, new Date(5 * DAY));
+        payment.processPayment();
+        paymentCodec.write(payment, buffer, 3);
+        Payment decoded = paymentCodec.read(buffer, 3);
+        assertEquals(7, decoded.getId());
+        assertEquals(123.45, decoded.getAmount());
+        assertEquals(new Date(5 * DAY), decoded.getDate());
+        assertTrue(decoded.isProcessed());
+
+        Payment undated = new Payment(8, 1, null);
+        paymentCodec.write(undated, buffer, 3);
+        assertNull(paymentCodec.read(buffer, 3).getDate());
+        assertFalse(paymentCodec.read(buffer, 3).isProcessed());
+
+        BookingRecordCodec bookingCodec = new BookingRecordCodec(id -> id == 7 ? payment : null);
+        buffer = ByteBuffer.allocate(bookingCodec.recordSize());
+        bookingCodec.write(new Booking(3, new Date(9 * DAY), new Date(6 * DAY), 300, 11, 22, payment), buffer, 0);
+        Booking booking = bookingCodec.read(buffer, 0);
+        assertEquals(3, booking.getId());
+        assertEquals(new Date(6 * DAY), booking.getCheckInDate());
+        assertEquals(new Date(9 * DAY), booking.getCheckOutDate());
+        assertEquals(300, booking.getTotalPrice());
+        assertEquals(11, booking.getGuestID());
+        assertEquals(22, booking.getPropertyID());
+        assertSame(payment, booking.getPayment());
+
+        bookingCodec.write(new Booking(4, null, null, 0, 1, 2, null), buffer, 0);
+        assertNull(bookingCodec.read(buffer, 0).getPayment());
+        assertNull(bookingCodec.read(buffer, 0).getCheckInDate());
+    }
+
+    @Test
+    void testGrowsAndReusesDeletedSlots() throws Exception {
+        Path file = dir.resolve("payments.dat");
+        int count = 3000;
+        try (MappedRecordRepository<Payment> repo = new MappedRecordRepository<>(file.toString(), new PaymentRecordCodec())) {
+            long initialSize = Files.size(file);
+            for (int id = 1; id <= count; id++) {
+                repo.create(new Payment(id, id, new Date(id * DAY)));
+            }
+            assertTrue(Files.size(file) > initialSize);
+            assertEquals(count, repo.getAll().size());
+            assertEquals(1500, repo.read(1500).getAmount());
+
+            long grownSize = Files.size(file);
+            for (int id = 1; id <= 100; id++) {
+                repo.delete(id);
+            }
+            for (int id = count + 1; id <= count + 100; id++) {
+                repo.create(new Payment(id, id, null));
+            }
+            assertEquals(grownSize, Files.size(file), "new records fill the deleted slots");
+            assertNull(repo.read(1));
+            assertEquals(count, repo.getAll().size());
+            assertEquals(5, repo.page(count + 95, 10).size());
+            assertEquals(count + 100, repo.maxId());
+        }
+    }
+
+    @Test
+    void testReopenKeepsUpdatesAndDeletes() throws Exception {
+        Path file = dir.resolve("payments.dat");
+        try (MappedRecordRepository<Payment> repo = new MappedRecordRepository<>(file.toString(), new PaymentRecordCodec())) {
+            for (int id = 1; id <= 10; id++) {
+                repo.create(new Payment(id, 10 * id, new Date(id * DAY)));
+            }
+            Payment paid = repo.read(4);
+            paid.processPayment();
+            repo.update(paid);
+            repo.delete(5);
+        }
+
+        try (MappedRecordRepository<Payment> repo = new MappedRecordRepository<>(file.toString(), new PaymentRecordCodec())) {
+            assertEquals(9, repo.getAll().size());
+            assertTrue(repo.read(4).isProcessed());
+            assertNull(repo.read(5));
+            repo.create(new Payment(11, 110, null));
+        }
+        try (MappedRecordRepository<Payment> repo = new MappedRecordRepository<>(file.toString(), new PaymentRecordCodec())) {
+            assertEquals(10, repo.getAll().size());
+        }
+
+        // A record file for another layout is refused rather than misread
+        assertThrows(DatabaseException.class,
+                () -> new MappedRecordRepository<>(file.toString(), new BookingRecordCodec(id -> null)));
+    }
+
+    @Test
+    void testConvertsLegacyFiles() throws Exception {
+        // Payments in the serialized-map format of FileRepository, bookings in the log format
+        Payment first = new Payment(1, 100, new Date(DAY));
+        first.processPayment();
+        Payment second = new Payment(2, 200, new Date(2 * DAY));
+        Map<Integer, Payment> legacyPayments = new HashMap<>();
+        legacyPayments.put(1, first);
+        legacyPayments.put(2, second);
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(dir.resolve("payments.txt")))) {
+            out.writeObject(legacyPayments);
+        }
+        try (LogFileRepository<Booking> legacyBookings = new LogFileRepository<>(dir.resolve("bookings.txt").toString())) {
+            legacyBookings.create(new Booking(1, new Date(3 * DAY), new Date(DAY), 100, 5, 6, first));
+            legacyBookings.create(new Booking(2, new Date(4 * DAY), new Date(2 * DAY), 200, 5, 7, second));
+        }
+
+        try (MappedRecordRepository<Payment> payments = openPayments();
+             MappedRecordRepository<Booking> bookings = openBookings(payments)) {
+            assertEquals(2, payments.getAll().size());
+            assertTrue(payments.read(1).isProcessed());
+            assertEquals(2, bookings.getAll().size());
+            assertEquals(200, bookings.read(2).getPayment().getAmount());
+            bookings.delete(1);
+        }
+        assertFalse(Files.exists(dir.resolve("payments.txt")));
+        assertTrue(Files.exists(dir.resolve("bookings.txt.converted")));
+
+        // Converted once: the record files stay authoritative from then on
+        try (MappedRecordRepository<Payment> payments = openPayments();
+             MappedRecordRepository<Booking> bookings = openBookings(payments)) {
+            assertEquals(1, bookings.getAll().size());
+            assertEquals(7, bookings.read(2).getPropertyID());
+        }
+    }
+
+    private MappedRecordRepository<Payment> openPayments() {
+        return new MappedRecordRepository<>(dir.resolve("payments.dat").toString(), new PaymentRecordCodec(),
+                dir.resolve("payments.txt").toString());
+    }
+
+    private MappedRecordRepository<Booking> openBookings(MappedRecordRepository<Payment> payments) {
+        return new MappedRecordRepository<>(dir.resolve("bookings.dat").toString(), new BookingRecordCodec(payments::read),
+                dir.resolve("bookings.txt").toString());
+    }
+}
@@ -0,0 +1,89 @@
+import org.code.Entities.*;
+import org.code.Repository.DBRepository;
+import org.code.Repository.IRepository;
+import org.code.Services.PropertyBookingService;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PropertyFetchGraphTest {
+    private static final int PROPERTIES = 2000;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private IRepository<Property> propertiesWithAmenities;
+    private PropertyBookingService bookingService;
+
+    @BeforeAll
+    void setup() {
+        sessionFactory = new Configuration().configure("hibernate-test.cfg.xml").buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        DBRepository<Property> propertyRepo = new DBRepository<>(sessionFactory, Property.class);
+        propertiesWithAmenities = propertyRepo.withFetchGraph(Property.WITH_AMENITIES);
+        bookingService = new PropertyBookingService(
+                new DBRepository<>(sessionFactory, Host.class), new DBRepository<>(sessionFactory, Guest.class), propertyRepo,
+                new DBRepository<>(sessionFactory, Booking.class), new DBRepository<>(sessionFactory, Review.class),
+                new DBRepository<>(sessionFactory, Amenity.class), new DBRepository<>(sessionFactory, Location.class),
+                new DBRepository<>(sessionFactory, CancellationPolicy.class), new DBRepository<>(sessionFactory, Payment.class),
+                sessionFactory);
+
+        Location location = new Location(0, "Cluj-Napoca", "Romania");
+        bookingService.addLocation(location);
+        CancellationPolicy policy = new CancellationPolicy(0, "Flexible");
+        bookingService.addCancellationPolicy(policy);
+        List<Property> properties = new ArrayList<>();
+        for (int id = 1; id <= PROPERTIES; id++) {
+            properties.add(new Property(id, id + " Main St", 100, "A nice place", location, List.of(id % 5, id % 7 + 10), policy, 1));
+        }
+        propertyRepo.createAll(properties);
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void testGetAllLoadsAmenitiesInOneExtraStatement() {
+        List<Property> properties = propertiesWithAmenities.getAll();
+        assertEquals(PROPERTIES, properties.size());
+        assertEquals(2, statistics.getPrepareStatementCount(), "one select for the properties, one subselect for the amenities");
+
+        // The collections were initialized before the session closed
+        for (Property property : properties) {
+            assertEquals(List.of(property.getId() % 5, property.getId() % 7 + 10), property.getAmenityIDs());
+        }
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTopRatedPropertiesAreReadTogetherInRankOrder() {
+        Guest guest = new Guest(0, "Jane Doe", "jane@example.com", "0700000000", 4.0);
+        bookingService.addGuest(guest);
+        bookingService.addReview(guest, bookingService.getPropertyById(40), 3.0, "Fine");
+        bookingService.addReview(guest, bookingService.getPropertyById(7), 5.0, "Great");
+        bookingService.addReview(guest, bookingService.getPropertyById(1500), 4.0, "Good");
+
+        statistics.clear();
+        List<Property> topRated = bookingService.getTopRatedProperties(3);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(List.of(7, 1500, 40), topRated.stream().map(Property::getId).collect(Collectors.toList()));
+        assertEquals(List.of(7 % 5, 7 % 7 + 10), topRated.get(0).getAmenityIDs());
+        assertTrue(statements <= 4, "statements: " + statements);
+    }
+}
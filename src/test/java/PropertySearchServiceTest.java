@@ -0,0 +1,153 @@
+import org.code.Entities.*;
+import org.code.Repository.InMemoryRepo;
+import org.code.Services.PropertyBookingService;
+import org.code.Services.PropertySearchService;
+import org.code.Services.SearchCriteria;
+import org.code.Services.SearchResult;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PropertySearchServiceTest {
+    private static final long DAY = 1000L * 60 * 60 * 24;
+    private static final int PROPERTIES = 40;
+    private static final int WIFI = 1;
+    private static final int POOL = 2;
+
+    private PropertyBookingService bookingService;
+    private PropertySearchService searchService;
+    private Date start;
+
+    @BeforeAll
+    void setup() {
+        bookingService = new PropertyBookingService(
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(),
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), null);
+        searchService = new PropertySearchService(bookingService);
+
+        Host host = new Host(1, "John Doe", "john@example.com", "1234567890", 4.5);
+        bookingService.addHost(host);
+        Guest guest = new Guest(1, "Jane Doe", "jane@example.com", "0700000000", 4.0);
+        bookingService.addGuest(guest);
+
+        // Odd ids in Cluj, even ids in Iasi; every third property also has a pool
+        for (int id = 1; id <= PROPERTIES; id++) {
+            Location location = id % 2 == 1 ? new Location("Cluj", "Romania") : new Location("Iasi", "Romania");
+            List<Integer> amenities = id % 3 == 0 ? List.of(WIFI, POOL) : List.of(WIFI);
+            bookingService.addProperty(new Property(id, id + " Main St", price(id), "A nice place", location,
+                    amenities, new CancellationPolicy(1, "Flexible"), host.getId()));
+        }
+        // Properties 1-10 are reviewed, rated from 0.5 up to 5.0
+        for (int id = 1; id <= 10; id++) {
+            bookingService.addReview(guest, bookingService.getPropertyById(id), rating(id), "Stayed here");
+        }
+
+        start = new Date(20000 * DAY);
+        bookingService.bookProperty(guest, bookingService.getPropertyById(4), new Date(start.getTime() + 10 * DAY),
+                new Date(start.getTime() + 15 * DAY));
+    }
+
+    @Test
+    void testEachCriterionAlone() {
+        assertEquals(expected(id -> id % 2 == 1), searchAll(SearchCriteria.create().location("Cluj", "Romania")));
+        assertEquals(expected(id -> id % 3 == 0), searchAll(SearchCriteria.create().amenities(List.of(POOL))));
+        assertEquals(expected(id -> price(id) >= 100 && price(id) <= 150), searchAll(SearchCriteria.create().price(100, 150)));
+        assertEquals(expected(id -> id <= 10 && rating(id) >= 4), searchAll(SearchCriteria.create().minRating(4)));
+        assertEquals(expected(id -> true), searchAll(SearchCriteria.create()));
+    }
+
+    @Test
+    void testCombinedCriteria() {
+        SearchCriteria criteria = SearchCriteria.create()
+                .location("Iasi", "Romania")
+                .amenities(List.of(WIFI, POOL))
+                .price(0, 200);
+        assertEquals(expected(id -> id % 2 == 0 && id % 3 == 0 && price(id) <= 200), searchAll(criteria));
+
+        criteria = SearchCriteria.create().location("Cluj", "Romania").minRating(2);
+        assertEquals(expected(id -> id % 2 == 1 && id <= 10 && rating(id) >= 2), searchAll(criteria));
+    }
+
+    @Test
+    void testPagesHaveNoGapsOrDuplicates() {
+        List<Integer> seen = new ArrayList<>();
+        SearchCriteria criteria = SearchCriteria.create().amenities(List.of(WIFI)).pageSize(7);
+        SearchResult result = searchService.search(criteria);
+        int pages = 1;
+        while (true) {
+            assertTrue(result.getProperties().size() <= 7);
+            seen.addAll(ids(result));
+            if (result.getNextCursor() == null) {
+                break;
+            }
+            assertEquals(7, result.getProperties().size());
+            result = searchService.search(criteria.after(result.getNextCursor()));
+            pages++;
+        }
+        assertEquals(expected(id -> true), seen);
+        assertEquals((PROPERTIES + 6) / 7, pages);
+    }
+
+    @Test
+    void testEmptySourceShortCircuits() {
+        SearchResult result = searchService.search(SearchCriteria.create()
+                .location("Nowhere", "Romania")
+                .amenities(List.of(WIFI))
+                .stay(start, new Date(start.getTime() + DAY)));
+        assertTrue(result.getProperties().isEmpty());
+        assertNull(result.getNextCursor());
+        assertEquals("no matches by location", result.getPlan());
+
+        result = searchService.search(SearchCriteria.create().amenities(List.of(WIFI, 99)));
+        assertTrue(result.getProperties().isEmpty());
+        assertEquals("no matches by amenities", result.getPlan());
+    }
+
+    @Test
+    void testStayOverlappingBookingIsExcluded() {
+        SearchCriteria overlapping = SearchCriteria.create()
+                .location("Iasi", "Romania")
+                .stay(new Date(start.getTime() + 12 * DAY), new Date(start.getTime() + 20 * DAY));
+        List<Integer> found = searchAll(overlapping);
+        assertFalse(found.contains(4));
+        assertEquals(expected(id -> id % 2 == 0 && id != 4), found);
+
+        SearchCriteria later = SearchCriteria.create()
+                .location("Iasi", "Romania")
+                .stay(new Date(start.getTime() + 20 * DAY), new Date(start.getTime() + 22 * DAY));
+        assertTrue(searchAll(later).contains(4));
+    }
+
+    private List<Integer> searchAll(SearchCriteria criteria) {
+        List<Integer> found = new ArrayList<>();
+        SearchResult result = searchService.search(criteria);
+        found.addAll(ids(result));
+        while (result.getNextCursor() != null) {
+            result = searchService.search(criteria.after(result.getNextCursor()));
+            found.addAll(ids(result));
+        }
+        return found;
+    }
+
+    private static List<Integer> expected(IntPredicate matches) {
+        return IntStream.rangeClosed(1, PROPERTIES).filter(matches).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(SearchResult result) {
+        return result.getProperties().stream().map(Property::getId).collect(Collectors.toList());
+    }
+
+    private static double price(int id) {
+        return 50 + 5 * id;
+    }
+
+    private static double rating(int id) {
+        return id / 2.0;
+    }
+}
@@ -0,0 +1,44 @@
+import org.code.Entities.*;
+import org.code.Repository.InMemoryRepo;
+import org.code.Services.PropertyBookingService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertyUpdateIndexTest {
+    @Test
+    void testUpdateMovesPropertyBetweenHostsAndAmenities() {
+        PropertyBookingService bookingService = new PropertyBookingService(
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(),
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), null);
+        bookingService.addHost(new Host(1, "First Host", "first@example.com", "0700000001", 4.5));
+        bookingService.addHost(new Host(2, "Second Host", "second@example.com", "0700000002", 4.5));
+        Location cluj = new Location(1, "Cluj", "Romania");
+        CancellationPolicy flexible = new CancellationPolicy(1, "Flexible");
+
+        bookingService.addProperty(new Property(1, "1 Main St", 100, "Flat", cluj, List.of(10, 11), flexible, 1));
+        assertEquals(List.of(1), listingIds(bookingService, 1));
+        assertEquals(List.of(1), propertyIds(bookingService.findPropertiesWithAmenities(List.of(10, 11))));
+
+        bookingService.updateProperty(new Property(1, "1 Main St", 100, "Flat", cluj, List.of(12), flexible, 2));
+
+        assertEquals(List.of(), listingIds(bookingService, 1));
+        assertEquals(List.of(1), listingIds(bookingService, 2));
+        assertEquals(List.of(), propertyIds(bookingService.findPropertiesWithAmenities(List.of(10))));
+        assertEquals(List.of(1), propertyIds(bookingService.findPropertiesWithAmenities(List.of(12))));
+    }
+
+    private static List<Integer> listingIds(PropertyBookingService bookingService, int hostId) {
+        return bookingService.getPropertyListingsForHost(hostId).stream()
+                .map(PropertyListing::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> propertyIds(List<Property> properties) {
+        return properties.stream().map(Property::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+import org.code.Entities.Location;
+import org.code.Helpers.CacheStatistics;
+import org.code.Repository.DBRepository;
+import org.code.Repository.QuerySpec;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReferenceDataCacheTest {
+    private SessionFactory sessionFactory;
+    private DBRepository<Location> locationRepo;
+    private Statistics statistics;
+
+    @BeforeAll
+    void setup() {
+        sessionFactory = new Configuration().configure("hibernate-test.cfg.xml").buildSessionFactory();
+        locationRepo = new DBRepository<>(sessionFactory, Location.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @Test
+    void testEntityReadsHitSecondLevelCache() {
+        Location location = new Location(0, "Cluj-Napoca", "Romania");
+        locationRepo.create(location);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Cluj-Napoca", locationRepo.read(location.getId()).getCity());
+        }
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Location.class.getName());
+        assertTrue(region.getHitCount() >= 9, "hits: " + region.getHitCount());
+        assertTrue(CacheStatistics.hitRatio(region.getHitCount(), region.getMissCount()) >= 0.9);
+    }
+
+    @Test
+    void testQueryCacheIsInvalidatedByWrites() {
+        QuerySpec byCity = QuerySpec.where("city", "Brasov");
+        locationRepo.create(new Location(0, "Brasov", "Romania"));
+
+        assertEquals(1, locationRepo.findBy(byCity).size());
+        assertEquals(1, locationRepo.findBy(byCity).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        locationRepo.create(new Location(0, "Brasov", "Moldova"));
+        assertEquals(2, locationRepo.findBy(byCity).size());
+
+        List<String> summary = CacheStatistics.summary(sessionFactory);
+        assertTrue(summary.stream().anyMatch(line -> line.startsWith(Location.class.getName() + ": ")), summary.toString());
+        assertEquals(String.format("Query cache: 1 hits, %d misses, %.1f%% hit ratio",
+                        statistics.getQueryCacheMissCount(), 100.0 / (1 + statistics.getQueryCacheMissCount())),
+                summary.get(summary.size() - 1));
+    }
+
+    @Test
+    void testSummaryReportsDisabledStatistics() {
+        // Its own database and no caches, so closing it leaves the shared cache manager and test data alone
+        SessionFactory withoutStatistics = new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty(AvailableSettings.GENERATE_STATISTICS, "false")
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:nostatistics")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .setProperty(AvailableSettings.USE_QUERY_CACHE, "false")
+                .buildSessionFactory();
+        try {
+            assertEquals(List.of("Statistics are disabled (hibernate.generate_statistics)."),
+                    CacheStatistics.summary(withoutStatistics));
+        } finally {
+            withoutStatistics.close();
+        }
+    }
+}
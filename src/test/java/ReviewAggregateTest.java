@@ -0,0 +1,60 @@
+import org.code.Entities.*;
+import org.code.Indexes.ReviewAggregateIndex;
+import org.code.Repository.IRepository;
+import org.code.Repository.InMemoryRepo;
+import org.code.Services.PropertyBookingService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewAggregateTest {
+    @Test
+    void testIndexKeepsCountsAndRanking() {
+        ReviewAggregateIndex index = new ReviewAggregateIndex();
+        index.add(new Review(1, 1, 10, 4.0, "Good", new Date()));
+        index.add(new Review(2, 2, 10, 2.0, "Meh", new Date()));
+        index.add(new Review(3, 1, 20, 5.0, "Great", new Date()));
+
+        assertEquals(2, index.reviewCount(10));
+        assertEquals(3.0, index.averageRating(10));
+        assertEquals(List.of(20, 10), index.ranked());
+        assertEquals(List.of(20), index.ratedAtLeast(4.0));
+
+        index.removeProperty(20);
+        assertEquals(0, index.reviewCount(20));
+        assertEquals(List.of(10), index.topRated(5));
+    }
+
+    @Test
+    void testFirstReviewOnFreshServiceIsCountedOnce() {
+        // One review is already stored when the service starts, so the index is built from storage on first use
+        IRepository<Review> reviewRepo = new InMemoryRepo<>();
+        reviewRepo.create(new Review(100, 1, 1, 1.0, "Stored before startup", new Date()));
+        PropertyBookingService bookingService = new PropertyBookingService(
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), reviewRepo,
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), null);
+        Guest guest = new Guest(1, "Jane Doe", "jane@example.com", "0700000000", 4.0);
+        bookingService.addGuest(guest);
+        Property first = new Property(1, "1 Main St", 100, "Flat", new Location("Cluj", "Romania"),
+                List.of(), new CancellationPolicy(1, "Flexible"), 1);
+        Property second = new Property(2, "2 Main St", 100, "Flat", new Location("Cluj", "Romania"),
+                List.of(), new CancellationPolicy(1, "Flexible"), 1);
+        bookingService.addProperty(first);
+        bookingService.addProperty(second);
+
+        bookingService.addReview(guest, first, 5.0, "Much better now");
+        assertEquals(3.0, bookingService.getAverageRating(1));
+
+        bookingService.addReview(guest, second, 4.0, "Good");
+        bookingService.addReview(guest, second, 2.0, "Meh");
+        assertEquals(3.0, bookingService.getAverageRating(2));
+        assertEquals(List.of(1, 2), bookingService.getTopRatedProperties(2).stream()
+                .map(Property::getId)
+                .collect(Collectors.toList()));
+        assertEquals(4, reviewRepo.getAll().size());
+    }
+}
@@ -0,0 +1,74 @@
+import org.code.Entities.*;
+import org.code.Exceptions.BusinessLogicException;
+import org.code.Repository.DBRepository;
+import org.code.Repository.InMemoryRepo;
+import org.code.Repository.QuerySpec;
+import org.code.Repository.TransactionTemplate;
+import org.code.Services.PropertyBookingService;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TransactionTemplateTest {
+    private SessionFactory sessionFactory;
+    private DBRepository<Payment> paymentRepo;
+    private DBRepository<Booking> bookingRepo;
+    private Statistics statistics;
+
+    @BeforeAll
+    void setup() {
+        sessionFactory = new Configuration().configure("hibernate-test.cfg.xml").buildSessionFactory();
+        paymentRepo = new DBRepository<>(sessionFactory, Payment.class);
+        bookingRepo = new DBRepository<>(sessionFactory, Booking.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testBookingUsesOneSessionAndOneCommit() {
+        PropertyBookingService bookingService = new PropertyBookingService(
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), bookingRepo, new InMemoryRepo<>(),
+                new InMemoryRepo<>(), new InMemoryRepo<>(), new InMemoryRepo<>(), paymentRepo, sessionFactory);
+        Property property = new Property(1, "1 Main St", 100.0, "A nice place", null, List.of(), null, 1);
+        bookingService.addProperty(property);
+        Guest guest = new Guest(1, "Guest", "guest@example.com", "0700000000", 4.0);
+        Date checkIn = new Date();
+        Date checkOut = new Date(checkIn.getTime() + 2 * 86_400_000L);
+        // The first booking also loads the booking calendar and seeds the id generator
+        assertTrue(bookingService.bookProperty(guest, property, checkIn, checkOut));
+
+        statistics.clear();
+        assertTrue(bookingService.bookProperty(guest, property, checkOut, new Date(checkOut.getTime() + 86_400_000L)));
+
+        assertEquals(1, statistics.getSessionOpenCount());
+        assertEquals(1, statistics.getSuccessfulTransactionCount());
+        assertEquals(2, bookingRepo.findBy(QuerySpec.where("propertyID", 1)).size());
+    }
+
+    @Test
+    void testFailedWorkRollsBackEveryRepository() {
+        TransactionTemplate transactions = new TransactionTemplate(sessionFactory);
+        int paymentsBefore = paymentRepo.getAll().size();
+
+        assertThrows(BusinessLogicException.class, () -> transactions.execute(() -> {
+            Payment payment = new Payment(0, 50.0, new Date());
+            paymentRepo.create(payment);
+            bookingRepo.create(new Booking(0, new Date(), new Date(), 50.0, 1, 2, payment));
+            throw new BusinessLogicException("Booking rejected.");
+        }));
+
+        assertEquals(paymentsBefore, paymentRepo.getAll().size());
+        assertNull(TransactionTemplate.currentSession(sessionFactory));
+    }
+}